@@ -0,0 +1,26 @@
+package ru.practicum.shareit;
+
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.Map;
+
+/**
+ * Те же ответы 400, что и у шлюза на Spring MVC. В WebFlux ошибки @Valid тела (WebExchangeBindException),
+ * неверного типа или отсутствия параметра и нечитаемого тела - подклассы ServerWebInputException.
+ */
+@RestControllerAdvice
+public class GatewayExceptionHandler {
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler({
+            IllegalArgumentException.class,
+            ServerWebInputException.class,
+            ConstraintViolationException.class
+    })
+    public Map<String, String> handleBadRequest(Exception ex) {
+        return Map.of("error", ex.getMessage());
+    }
+}
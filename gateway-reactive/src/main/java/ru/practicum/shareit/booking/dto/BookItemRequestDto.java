@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookItemRequestDto {
+    private long itemId;
+    @FutureOrPresent
+    private LocalDateTime start;
+    @Future
+    private LocalDateTime end;
+
+    @AssertTrue(message = "end must be after start")
+    public boolean isEndAfterStart() {
+        return start != null && end != null && end.isAfter(start);
+    }
+}
\ No newline at end of file
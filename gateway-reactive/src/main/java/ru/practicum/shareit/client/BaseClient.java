@@ -0,0 +1,159 @@
+package ru.practicum.shareit.client;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Базовый клиент сервера ShareIt на WebClient. Ответ сервера не разбирается: статус и заголовки копируются,
+ * а тело отдаётся потоком буферов Netty, который WebFlux пишет в ответ клиенту. Ошибки 4xx/5xx сервера
+ * не превращаются в исключения и уходят клиенту с тем же статусом и телом.
+ */
+public class BaseClient {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * Заголовки одного соединения (RFC 9110, 7.6.1), их выставляет сам сервер шлюза.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization");
+
+    protected final WebClient web;
+
+    protected BaseClient(WebClient web) {
+        this.web = web;
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId,
+                                                         @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, parameters, null);
+    }
+
+    /**
+     * GET с заголовком Accept клиента, если тот просит application/x-ndjson: сервер отдаёт потоковый вариант,
+     * и его строки уходят клиенту по мере получения. Иначе - обычный JSON-запрос.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getNegotiated(String path, Long userId,
+                                                                   @Nullable Map<String, Object> parameters,
+                                                                   @Nullable String accept) {
+        if (!acceptsNdjson(accept)) {
+            return get(path, userId, parameters);
+        }
+        return passThrough(web.get()
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    headers.set(HttpHeaders.ACCEPT, accept);
+                }));
+    }
+
+    protected static boolean acceptsNdjson(@Nullable String accept) {
+        return accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
+        return post(path, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, null, body);
+    }
+
+    /**
+     * POST с заголовком Idempotency-Key клиента: повтор с тем же ключом сервер не выполняет
+     * второй раз, а отдаёт сохранённый ответ.
+     */
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> postIdempotent(String path, long userId,
+                                                                        @Nullable String idempotencyKey, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, idempotencyKey, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, T body) {
+        return patch(path, null, body);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId) {
+        return patch(path, userId, null);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, @Nullable T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, null, null, body);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, null, null, null, null);
+    }
+
+    /**
+     * POST без буферизации: буферы тела запроса клиента по мере поступления пишутся в соединение с сервером.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> postStream(String path, long userId, MediaType contentType,
+                                                                Flux<DataBuffer> body) {
+        return passThrough(web.post()
+                .uri(path)
+                .headers(headers -> defaultHeaders(headers, userId))
+                .contentType(contentType)
+                .body(BodyInserters.fromDataBuffers(body)));
+    }
+
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                          @Nullable String idempotencyKey,
+                                                                          @Nullable Map<String, Object> parameters,
+                                                                          @Nullable T body) {
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    if (idempotencyKey != null) {
+                        headers.set(IDEMPOTENCY_KEY, idempotencyKey);
+                    }
+                });
+        return passThrough(body != null ? request.bodyValue(body) : request);
+    }
+
+    private static Mono<ResponseEntity<Flux<DataBuffer>>> passThrough(WebClient.RequestHeadersSpec<?> request) {
+        return request.retrieve()
+                .onStatus(HttpStatusCode::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    response.getHeaders().forEach((name, values) -> {
+                        if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                            headers.addAll(name, values);
+                        }
+                    });
+                    return ResponseEntity.status(response.getStatusCode()).headers(headers).body(response.getBody());
+                });
+    }
+
+    private static void defaultHeaders(HttpHeaders headers, Long userId) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchMode;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+@Service
+public class BookingClient extends BaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    @Autowired
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ClientHttpConnector shareItServerConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(shareItServerConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookings(long userId, BookingState state, Integer from,
+                                                              Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "from", from,
+                "size", size
+        );
+        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItem(long userId, String idempotencyKey,
+                                                           BookItemRequestDto requestDto) {
+        return postIdempotent("", userId, idempotencyKey, requestDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItems(long userId, BookingBatchMode mode,
+                                                            List<BookItemRequestDto> requestDtos) {
+        return post("/batch?mode=" + mode.name(), userId, requestDtos);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(long userId, Long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approve(long userId,
+                                                          long bookingId,
+                                                          boolean approved) {
+        return patch("/" + bookingId + "?approved=" + approved, userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> decideAll(long userId, List<Long> bookingIds, boolean approved) {
+        return patch("/bulk?approved=" + approved, userId, bookingIds);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllByOwner(Long userId, String state, Integer from,
+                                                                Integer size, String accept) {
+        if (acceptsNdjson(accept)) {
+            // потоковая выдача - вся выборка, from/size сервер для неё не принимает
+            return getNegotiated("/owner?state={state}", userId, Map.of("state", state), accept);
+        }
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "from", from,
+                "size", size
+        );
+        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    }
+}
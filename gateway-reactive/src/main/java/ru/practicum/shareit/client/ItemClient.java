@@ -0,0 +1,75 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Component
+public class ItemClient extends BaseClient {
+
+    private static final String API_PREFIX = "/items";
+    static final String OWNER_HEADER = "X-Item-Owner-Id";
+
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      WebClient.Builder builder,
+                      ClientHttpConnector shareItServerConnector) {
+        super(builder
+                .baseUrl(serverUrl + API_PREFIX)
+                .clientConnector(shareItServerConnector)
+                .build());
+    }
+
+    public <T> Mono<ResponseEntity<Flux<DataBuffer>>> add(long userId, String idempotencyKey, T body) {
+        return postIdempotent("", userId, idempotencyKey, body);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> importItems(long userId, MediaType contentType,
+                                                              Flux<DataBuffer> body) {
+        return postStream("/import", userId, contentType, body);
+    }
+
+    public <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(long userId, long itemId, T body) {
+        return patch("/" + itemId, userId, body);
+    }
+
+    /**
+     * Заголовок X-Item-Owner-Id сервер ставит для шлюзов, клиенту он не отдаётся.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(long userId, long itemId) {
+        return get("/" + itemId, userId).map(response -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(response.getHeaders());
+            headers.remove(OWNER_HEADER);
+            return ResponseEntity.status(response.getStatusCode()).headers(headers).body(response.getBody());
+        });
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOwnerItems(long userId, int from, int size) {
+        return get("?from={from}&size={size}",
+                userId,
+                Map.of("from", from, "size", size));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> search(String text, int from, int size, String accept) {
+        if (acceptsNdjson(accept)) {
+            // потоковая выдача - вся выборка, from/size сервер для неё не принимает
+            return getNegotiated("/search?text={text}", null, Map.of("text", text), accept);
+        }
+        return get("/search?text={text}&from={from}&size={size}",
+                null,                                     // заголовок X-Sharer-User-Id не нужен
+                Map.of("text", text, "from", from, "size", size));
+    }
+
+    public <T> Mono<ResponseEntity<Flux<DataBuffer>>> addComment(long userId, long itemId, T body) {
+        return post("/" + itemId + "/comment", userId, body);
+    }
+}
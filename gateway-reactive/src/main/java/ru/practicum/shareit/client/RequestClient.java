@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Component
+public class RequestClient extends BaseClient {
+
+    private static final String API_PREFIX = "/requests";
+
+    public RequestClient(
+            @Value("${shareit-server.url}") String serverUrl,
+            WebClient.Builder builder,
+            ClientHttpConnector shareItServerConnector
+    ) {
+        super(builder
+                .baseUrl(serverUrl + API_PREFIX)
+                .clientConnector(shareItServerConnector)
+                .build()
+        );
+    }
+
+    public <T> Mono<ResponseEntity<Flux<DataBuffer>>> add(Long userId, T body) {
+        return post("", userId, body);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOwn(Long userId) {
+        return get("", userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOthers(Long userId, Integer from, Integer size) {
+        return get("/all?from={from}&size={size}", userId, Map.of("from", from, "size", size));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOne(Long userId, Long reqId) {
+        return get("/" + reqId, userId);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Один пул соединений Reactor Netty с сервером ShareIt на все клиенты шлюза. Ожидание ответа не занимает
+ * поток: запросы обслуживают потоки event loop (по числу ядер). Соединения, простаивающие дольше keep-alive,
+ * не берутся из пула и закрываются фоновой очисткой; keep-alive должен быть меньше keepAliveTimeout Tomcat
+ * на сервере. Состояние пула - в метриках reactor.netty.connection.provider.* с тегом name=shareit-server
+ * (active, idle, pending).
+ */
+@Configuration
+public class ShareItServerHttpConfig {
+    static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(
+            @Value("${shareit-server.pool.max-connections:500}") int maxConnections,
+            @Value("${shareit-server.pool.max-pending:10000}") int maxPending,
+            @Value("${shareit-server.pool.lease-timeout:PT5S}") Duration leaseTimeout,
+            @Value("${shareit-server.pool.keep-alive:PT15S}") Duration keepAlive,
+            @Value("${shareit-server.pool.idle-eviction:PT10S}") Duration idleEviction) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPending)
+                .pendingAcquireTimeout(leaseTimeout)
+                .maxIdleTime(keepAlive)
+                .evictInBackground(idleEviction)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector shareItServerConnector(
+            ConnectionProvider shareItServerConnectionProvider,
+            @Value("${shareit-server.pool.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${shareit-server.pool.response-timeout:PT30S}") Duration responseTimeout) {
+        return new ReactorClientHttpConnector(HttpClient.create(shareItServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout));
+    }
+}
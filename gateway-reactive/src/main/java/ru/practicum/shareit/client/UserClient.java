@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Component
+public class UserClient extends BaseClient {
+
+    private static final String API_PREFIX = "/users";
+
+    public UserClient(@Value("${shareit-server.url}") String serverUrl,
+                      WebClient.Builder builder,
+                      ClientHttpConnector shareItServerConnector) {
+        super(builder
+                .baseUrl(serverUrl + API_PREFIX)
+                .clientConnector(shareItServerConnector)
+                .build());
+    }
+
+    public <T> Mono<ResponseEntity<Flux<DataBuffer>>> add(T body) {
+        return post("", body);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(Long id) {
+        return get("/" + id);
+    }
+
+    public <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(Long id, T body) {
+        return patch("/" + id, body);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delete(Long id) {
+        return delete("/" + id);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAll(int from, int size) {
+        return get("?from={from}&size={size}", null,
+                Map.of("from", from, "size", size));
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.comment;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class CommentDto {
+    private Long id;
+    private String text;
+    private String authorName;
+    private LocalDateTime created;
+}
+
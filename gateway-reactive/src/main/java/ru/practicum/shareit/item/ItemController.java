@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ItemClient;
+import ru.practicum.shareit.comment.CommentDto;
+
+@RestController
+@RequestMapping("/items")
+@RequiredArgsConstructor
+@Validated
+public class ItemController {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ItemClient client;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> add(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY, required = false)
+                                                      String idempotencyKey,
+                                                      @Valid @RequestBody ItemDto dto) {
+        return client.add(userId, idempotencyKey, dto);
+    }
+
+    /**
+     * Импорт каталога (JSON-массив или CSV). Тело не разбирается на шлюзе, а потоком
+     * передаётся серверу: построчная проверка и отчёт об ошибках - там.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV_VALUE})
+    public Mono<ResponseEntity<Flux<DataBuffer>>> importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                              ServerHttpRequest request) {
+        return client.importItems(userId, request.getHeaders().getContentType(), request.getBody());
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @PathVariable("id") Long id,
+                                                         @Valid @RequestBody ItemDto dto) {
+        return client.patch(userId, id, dto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @PathVariable("id") Long id) {
+        return client.get(userId, id);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> ownerItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(defaultValue = "0") int from,
+                                                             @RequestParam(defaultValue = "10") int size) {
+        return client.getOwnerItems(userId, from, size);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> search(@RequestParam String text,
+                                                         @RequestParam(defaultValue = "0") int from,
+                                                         @RequestParam(defaultValue = "10") int size,
+                                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                         String accept) {
+        return client.search(text, from, size, accept);
+    }
+
+    @PostMapping("/{id}/comment")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> comment(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @PathVariable("id") Long id,
+                                                          @Valid @RequestBody CommentDto dto) {
+        return client.addComment(userId, id, dto);
+    }
+}
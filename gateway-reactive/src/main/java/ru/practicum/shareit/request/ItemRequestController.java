@@ -0,0 +1,46 @@
+package ru.practicum.shareit.request;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.RequestClient;
+
+
+@RestController
+@RequestMapping("/requests")
+@RequiredArgsConstructor
+@Validated
+public class ItemRequestController {
+
+    private final RequestClient client;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addRequest(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody @Valid ItemRequestDto requestDto) {
+        return client.add(userId, requestDto);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> own(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return client.getOwn(userId);
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> others(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestParam(defaultValue = "0") int from,
+                                                         @RequestParam(defaultValue = "10") int size) {
+        return client.getOthers(userId, from, size);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> one(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @PathVariable("id") Long id) {
+        return client.getOne(userId, id);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemRequestDto {
+    private Long id;
+    @NotBlank
+    private String description;
+    private LocalDateTime created;
+    private List<ItemDto> items;
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.user;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.UserClient;
+
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+@Validated
+public class UserController {
+
+    private final UserClient client;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addUser(@Valid @RequestBody UserDto dto) {
+        return client.add(dto);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(@PathVariable("id") Long id,
+                                                             @Valid @RequestBody UserDto dto) {
+        return client.patch(id, dto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUser(@PathVariable("id") Long id) {
+        return client.get(id);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllUsers(@RequestParam(defaultValue = "0") int from,
+                                                              @RequestParam(defaultValue = "10") int size) {
+        return client.getAll(from, size);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteUser(@PathVariable("id") Long id) {
+        return client.delete(id);
+    }
+}
\ No newline at end of file
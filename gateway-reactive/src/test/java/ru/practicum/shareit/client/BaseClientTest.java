@@ -0,0 +1,148 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BaseClientTest {
+    private static final String JSON = "{\"id\":1,\"name\":\"Drill\"}";
+
+    HttpServer upstream;
+    ConnectionProvider pool;
+    ClientHttpConnector connector;
+    String serverUrl;
+    AtomicReference<String> lastUserId = new AtomicReference<>();
+    AtomicReference<String> lastBody = new AtomicReference<>();
+    AtomicReference<String> lastAccept = new AtomicReference<>();
+    AtomicReference<String> lastQuery = new AtomicReference<>();
+
+    @BeforeEach
+    void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.createContext("/", exchange -> {
+            lastUserId.set(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+            lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            lastAccept.set(exchange.getRequestHeaders().getFirst("Accept"));
+            lastQuery.set(exchange.getRequestURI().getQuery());
+            String path = exchange.getRequestURI().getPath();
+            if (exchange.getRequestMethod().equals("DELETE")) {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+                return;
+            }
+            boolean conflict = path.equals("/users");
+            byte[] body = (conflict ? "{\"error\":\"email exists\"}" : JSON).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("X-Trace", "abc");
+            exchange.getResponseHeaders().set(ItemClient.OWNER_HEADER, "3");
+            exchange.sendResponseHeaders(conflict ? 409 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+        serverUrl = "http://localhost:" + upstream.getAddress().getPort();
+        ShareItServerHttpConfig config = new ShareItServerHttpConfig();
+        pool = config.shareItServerConnectionProvider(10, 100, Duration.ofSeconds(5), Duration.ofSeconds(15),
+                Duration.ofSeconds(10));
+        connector = config.shareItServerConnector(pool, Duration.ofSeconds(2), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void stop() {
+        pool.dispose();
+        upstream.stop(0);
+    }
+
+    @Test
+    @DisplayName("тело, статус и заголовки сервера без разбора JSON, заголовки соединения не копируются")
+    void passThrough_copiesBodyAndHeaders() {
+        ItemClient client = new ItemClient(serverUrl, WebClient.builder(), connector);
+
+        ResponseEntity<Flux<DataBuffer>> response = client.get(7L, 1L).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getFirst("X-Trace")).isEqualTo("abc");
+        assertThat(response.getHeaders().containsKey(ItemClient.OWNER_HEADER)).isFalse();
+        assertThat(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING)).isFalse();
+        assertThat(read(response)).isEqualTo(JSON);
+        assertThat(lastUserId.get()).isEqualTo("7");
+    }
+
+    @Test
+    @DisplayName("ошибка сервера отдаётся с тем же статусом и телом, а не исключением")
+    void passThrough_error() {
+        UserClient client = new UserClient(serverUrl, WebClient.builder(), connector);
+
+        ResponseEntity<Flux<DataBuffer>> response = client.add(Map.of("email", "a@mail.com")).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(read(response)).isEqualTo("{\"error\":\"email exists\"}");
+        assertThat(lastBody.get()).isEqualTo("{\"email\":\"a@mail.com\"}");
+    }
+
+    @Test
+    @DisplayName("Accept: application/x-ndjson уходит на сервер без from/size, прочие Accept заменяются на JSON")
+    void ndjsonAccept_forwarded() {
+        ItemClient items = new ItemClient(serverUrl, WebClient.builder(), connector);
+        BookingClient bookings = new BookingClient(serverUrl, WebClient.builder(), connector);
+
+        read(items.search("drill", 0, 10, "application/x-ndjson, application/json;q=0.5").block());
+        assertThat(lastAccept.get()).isEqualTo("application/x-ndjson, application/json;q=0.5");
+        assertThat(lastQuery.get()).isEqualTo("text=drill");
+
+        read(bookings.getAllByOwner(7L, "ALL", 0, 10, MediaType.APPLICATION_NDJSON_VALUE).block());
+        assertThat(lastAccept.get()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+        assertThat(lastQuery.get()).isEqualTo("state=ALL");
+        assertThat(lastUserId.get()).isEqualTo("7");
+
+        read(bookings.getAllByOwner(7L, "ALL", 0, 10, "text/html, */*").block());
+        assertThat(lastAccept.get()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(lastQuery.get()).isEqualTo("state=ALL&from=0&size=10");
+    }
+
+    @Test
+    @DisplayName("пустой ответ без тела")
+    void passThrough_emptyBody() {
+        UserClient client = new UserClient(serverUrl, WebClient.builder(), connector);
+
+        ResponseEntity<Flux<DataBuffer>> response = client.delete(1L).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(read(response)).isEmpty();
+    }
+
+    private static String read(ResponseEntity<Flux<DataBuffer>> response) {
+        return DataBufferUtils.join(response.getBody())
+                .map(buffer -> {
+                    String body = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .defaultIfEmpty("")
+                .block();
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.controller.gateway;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.*;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.BookingClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(BookingController.class)
+@ContextConfiguration(classes = ru.practicum.shareit.ShareItReactiveGateway.class)
+class BookingControllerGatewayTest {
+
+    @Autowired WebTestClient web;
+
+    @MockBean BookingClient client;
+
+    private static Mono<ResponseEntity<Flux<DataBuffer>>> json(HttpStatus status, String body) {
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8));
+        return Mono.just(ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(Flux.just(buffer)));
+    }
+
+    @Test
+    void listBookings_ok() {
+        when(client.getBookings(1L, BookingState.ALL, 0, 10))
+                .thenReturn(json(HttpStatus.OK, "[{\"id\":1,\"status\":\"WAITING\"}]"));
+
+        web.get().uri("/bookings?state=ALL&from=0&size=10")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].id").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("GET /bookings/owner с Accept: application/x-ndjson – Accept уходит в клиент, ответ ndjson")
+    void ownerBookings_ndjson_passesAccept() {
+        String lines = "{\"id\":1}\n";
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(lines.getBytes(StandardCharsets.UTF_8));
+        when(client.getAllByOwner(1L, "ALL", 0, 10, MediaType.APPLICATION_NDJSON_VALUE)).thenReturn(Mono.just(
+                ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(Flux.just(buffer))));
+
+        web.get().uri("/bookings/owner")
+                .header("X-Sharer-User-Id", "1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).isEqualTo(lines);
+    }
+
+    @Test
+    @DisplayName("POST /bookings – Idempotency-Key клиента уходит на сервер, статус сервера сохраняется")
+    void createBooking_forwardsIdempotencyKey() {
+        var dto = new BookItemRequestDto(2L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        when(client.bookItem(eq(1L), eq("retry-1"), any()))
+                .thenReturn(json(HttpStatus.CREATED, "{\"id\":1,\"status\":\"WAITING\"}"));
+
+        web.post().uri("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .header("Idempotency-Key", "retry-1")
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().jsonPath("$.status").isEqualTo("WAITING");
+
+        verify(client).bookItem(eq(1L), eq("retry-1"), any());
+    }
+
+    @Test
+    @DisplayName("POST /bookings/batch – невалидная позиция → 400 BAD REQUEST")
+    void bookItems_invalidElement() {
+        LocalDateTime now = LocalDateTime.now();
+        var ok = new BookItemRequestDto(2L, now.plusDays(1), now.plusDays(2));
+        var bad = new BookItemRequestDto(3L, now.plusDays(2), now.plusDays(1));
+
+        web.post().uri("/bookings/batch")
+                .header("X-Sharer-User-Id", "1")
+                .bodyValue(List.of(ok, bad))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").exists();
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    @DisplayName("PATCH /bookings/bulk – пустой список → 400 BAD REQUEST")
+    void decideAll_empty() {
+        web.patch().uri("/bookings/bulk?approved=true")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[]")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    @DisplayName("GET /bookings/owner – size=0 → 400 BAD REQUEST")
+    void ownerBookings_badSize() {
+        web.get().uri("/bookings/owner?size=0")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    @DisplayName("GET /bookings – невалидный state → 400 BAD REQUEST")
+    void listBookings_badState() {
+        web.get().uri("/bookings?state=UNKNOWN")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Unknown state: UNKNOWN");
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    @DisplayName("POST /bookings – end < start → 400 BAD REQUEST")
+    void create_endBeforeStart_badRequest() {
+        LocalDateTime now = LocalDateTime.now();
+        var bad = new BookItemRequestDto(2L, now.plusDays(2), now.plusDays(1));
+
+        web.post().uri("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .bodyValue(bad)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    @DisplayName("PATCH /bookings/{id}?approved=foo → 400 BAD REQUEST")
+    void approve_badBooleanParam() {
+        web.patch().uri("/bookings/1?approved=foo")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    @DisplayName("GET /bookings – отрицательный from → 400 BAD REQUEST")
+    void list_negativeFrom() {
+        web.get().uri("/bookings?state=ALL&from=-5&size=10")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(client);
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.controller.gateway;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.*;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.ItemDto;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ItemController.class)
+@ContextConfiguration(classes = ru.practicum.shareit.ShareItReactiveGateway.class)
+class ItemControllerGatewayTest {
+
+    @Autowired WebTestClient web;
+
+    @MockBean ItemClient client;
+
+    private final ItemDto sample = ItemDto.builder()
+            .id(1L).name("Drill").description("Cordless").available(true).build();
+
+    private static Mono<ResponseEntity<Flux<DataBuffer>>> json(HttpStatus status, String body) {
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8));
+        return Mono.just(ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(Flux.just(buffer)));
+    }
+
+    @Test
+    @DisplayName("POST /items - тело ответа сервера пишется как есть")
+    void addItem_ok() {
+        when(client.add(eq(1L), isNull(), any()))
+                .thenReturn(json(HttpStatus.CREATED, "{\"id\":1,\"name\":\"Drill\"}"));
+
+        web.post().uri("/items")
+                .header("X-Sharer-User-Id", "1")
+                .bodyValue(sample)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).isEqualTo("{\"id\":1,\"name\":\"Drill\"}");
+    }
+
+    @Test
+    void addItem_blankName() {
+        web.post().uri("/items")
+                .header("X-Sharer-User-Id", "1")
+                .bodyValue(sample.toBuilder().name("").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").exists();
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void importCsv_bodyIsPassedThroughUnparsed() {
+        String csv = "name,description,available\n,no name,true\n";
+        when(client.importItems(eq(1L), any(), any())).thenAnswer(invocation -> {
+            Flux<DataBuffer> body = invocation.getArgument(2);
+            return DataBufferUtils.join(body)
+                    .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                    .flatMap(received -> json(HttpStatus.OK, received.equals(csv) ? "{\"received\":1}" : "{}"));
+        });
+
+        web.post().uri("/items/import")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue(csv)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.received").isEqualTo(1);
+
+        verify(client).importItems(eq(1L), eq(MediaType.parseMediaType("text/csv")), any());
+    }
+
+    @Test
+    void import_unsupportedType() {
+        web.post().uri("/items/import")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_XML)
+                .bodyValue("<items/>")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    @DisplayName("GET /items/search с Accept: application/x-ndjson - Accept уходит в клиент, строки отдаются как есть")
+    void search_ndjson_passesAcceptAndStreams() {
+        String lines = "{\"id\":1}\n{\"id\":2}\n";
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(lines.getBytes(StandardCharsets.UTF_8));
+        when(client.search("drill", 0, 10, MediaType.APPLICATION_NDJSON_VALUE)).thenReturn(Mono.just(
+                ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(Flux.just(buffer))));
+
+        web.get().uri("/items/search?text=drill")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).isEqualTo(lines);
+    }
+
+    @Test
+    @DisplayName("POST /items - отсутствует заголовок X-Sharer-User-Id → 400 BAD REQUEST")
+    void add_noHeader() {
+        web.post().uri("/items")
+                .bodyValue(sample)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    @DisplayName("PATCH /items/{id} - пустое тело → 400 BAD REQUEST")
+    void patch_emptyBody() {
+        web.patch().uri("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(client);
+    }
+}
@@ -1,19 +1,27 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchMode;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.client.BookingClient;
 
+import java.util.List;
+
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -21,6 +29,8 @@ import ru.practicum.shareit.client.BookingClient;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
 
     @GetMapping
@@ -35,8 +45,18 @@ public class BookingController {
 
     @PostMapping
     public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY, required = false)
+                                           String idempotencyKey,
                                            @RequestBody @Valid BookItemRequestDto requestDto) {
-        return bookingClient.bookItem(userId, requestDto);
+        return bookingClient.bookItem(userId, idempotencyKey, requestDto);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<Object> bookItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @RequestParam(defaultValue = "ALL_OR_NOTHING") BookingBatchMode mode,
+                                            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                            List<@NotNull @Valid BookItemRequestDto> requestDtos) {
+        return bookingClient.bookItems(userId, mode, requestDtos);
     }
 
     @GetMapping("/{bookingId}")
@@ -52,9 +72,21 @@ public class BookingController {
         return bookingClient.approve(userId, bookingId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public ResponseEntity<Object> decideAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @RequestParam boolean approved,
+                                            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                            List<@NotNull Long> bookingIds) {
+        return bookingClient.decideAll(userId, bookingIds, approved);
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<Object> getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @RequestParam(defaultValue = "ALL") String state) {
-        return bookingClient.getAllByOwner(userId, state);
+                                                @RequestParam(defaultValue = "ALL") String state,
+                                                @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                String accept) {
+        return bookingClient.getAllByOwner(userId, state, from, size, accept);
     }
 }
\ No newline at end of file
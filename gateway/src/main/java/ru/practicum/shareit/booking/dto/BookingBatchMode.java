@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking.dto;
+
+public enum BookingBatchMode {
+    ALL_OR_NOTHING, PER_ITEM
+}
@@ -1,22 +1,51 @@
 package ru.practicum.shareit.client;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * Базовый клиент сервера ShareIt. В режиме pass-through (shareit-server.pass-through, по умолчанию включён)
+ * ответ сервера не разбирается: статус и заголовки копируются, а тело отдаётся как поток, который
+ * Spring MVC переписывает в ответ сервлета, и соединение возвращается в пул после записи. Без него ответ
+ * читается в дерево Map/List и сериализуется обратно, что нужно, только если шлюз должен менять тело.
+ */
 public class BaseClient {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * Заголовки одного соединения (RFC 9110, 7.6.1), их выставляет сам контейнер сервлетов.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization");
+
     protected final RestTemplate rest;
+    private final boolean passThrough;
 
-    protected BaseClient(RestTemplate rest) {
+    protected BaseClient(RestTemplate rest, boolean passThrough) {
         this.rest = rest;
+        this.passThrough = passThrough;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -43,6 +72,15 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
+    /**
+     * POST с заголовком Idempotency-Key клиента: повтор с тем же ключом сервер не выполняет
+     * второй раз, а отдаёт сохранённый ответ.
+     */
+    protected <T> ResponseEntity<Object> postIdempotent(String path, long userId, @Nullable String idempotencyKey,
+                                                        T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, idempotencyKey, null, body);
+    }
+
     protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
@@ -79,8 +117,56 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * GET с заголовком Accept клиента, если тот просит application/x-ndjson: сервер отдаёт потоковый вариант,
+     * и он передаётся потоком независимо от shareit-server.pass-through. Иначе - обычный JSON-запрос.
+     */
+    protected ResponseEntity<Object> getNegotiated(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                   @Nullable String accept) {
+        if (!acceptsNdjson(accept)) {
+            return get(path, userId, parameters);
+        }
+        return exchangeRaw(HttpMethod.GET, path, parameters, request -> {
+            request.getHeaders().putAll(defaultHeaders(userId));
+            request.getHeaders().set(HttpHeaders.ACCEPT, accept);
+        });
+    }
+
+    protected static boolean acceptsNdjson(@Nullable String accept) {
+        return accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    /**
+     * POST без буферизации: тело запроса копируется из входного потока прямо в соединение с сервером,
+     * ответ передаётся так же, как в режиме pass-through.
+     */
+    protected ResponseEntity<Object> postStream(String path, long userId, MediaType contentType, InputStream body) {
+        return exchangeRaw(HttpMethod.POST, path, null, request -> {
+            request.getHeaders().putAll(defaultHeaders(userId));
+            request.getHeaders().setContentType(contentType);
+            // getBody() у потоковых запросов копит всё тело в памяти до execute(), setBody пишет его при отправке
+            if (request instanceof StreamingHttpOutputMessage streaming) {
+                streaming.setBody(body::transferTo);
+            } else {
+                body.transferTo(request.getBody());
+            }
+        });
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return makeAndSendRequest(method, path, userId, null, parameters, body);
+    }
+
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable String idempotencyKey, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (idempotencyKey != null) {
+            headers.set(IDEMPOTENCY_KEY, idempotencyKey);
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+        if (passThrough) {
+            return exchangeRaw(method, path, parameters, rest.httpEntityCallback(requestEntity));
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -95,6 +181,49 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    private ResponseEntity<Object> exchangeRaw(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                               RequestCallback requestCallback) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            requestCallback.doWithRequest(request);
+            response = request.execute();
+            return passThrough(response);
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    private static ResponseEntity<Object> passThrough(ClientHttpResponse response) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatusCode()).headers(headers);
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NO_CONTENT)
+                || response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                || headers.getContentLength() == 0) {
+            response.close();
+            return builder.build();
+        }
+        InputStream body = new FilterInputStream(response.getBody()) {
+            @Override
+            public void close() {
+                response.close();
+            }
+        };
+        return builder.body(new InputStreamResource(body));
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -1,17 +1,18 @@
 package ru.practicum.shareit.client;
 
+import java.util.List;
 import java.util.Map;
 
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchMode;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 @Service
@@ -19,12 +20,15 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory shareItServerRequestFactory,
+                         @Value("${shareit-server.pass-through:true}") boolean passThrough) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(HttpClients.createDefault()))
-                        .build()
+                        .requestFactory(() -> shareItServerRequestFactory)
+                        .build(),
+                passThrough
         );
     }
 
@@ -38,8 +42,12 @@ public class BookingClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public ResponseEntity<Object> bookItem(long userId, String idempotencyKey, BookItemRequestDto requestDto) {
+        return postIdempotent("", userId, idempotencyKey, requestDto);
+    }
+
+    public ResponseEntity<Object> bookItems(long userId, BookingBatchMode mode, List<BookItemRequestDto> requestDtos) {
+        return post("/batch?mode=" + mode.name(), userId, requestDtos);
     }
 
     public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
@@ -52,9 +60,20 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
-    public ResponseEntity<Object> getAllByOwner(Long userId, String state) {
-        Map<String, Object> parameters = Map.of("state", state);
+    public ResponseEntity<Object> decideAll(long userId, List<Long> bookingIds, boolean approved) {
+        return patch("/bulk?approved=" + approved, userId, bookingIds);
+    }
 
-        return get("/owner?state={state}", userId, parameters);
+    public ResponseEntity<Object> getAllByOwner(Long userId, String state, Integer from, Integer size, String accept) {
+        if (acceptsNdjson(accept)) {
+            // потоковая выдача - вся выборка, from/size сервер для неё не принимает
+            return getNegotiated("/owner?state={state}", userId, Map.of("state", state), accept);
+        }
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "from", from,
+                "size", size
+        );
+        return getNegotiated("/owner?state={state}&from={from}&size={size}", userId, parameters, accept);
     }
 }
\ No newline at end of file
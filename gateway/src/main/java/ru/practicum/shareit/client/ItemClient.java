@@ -1,38 +1,85 @@
 package ru.practicum.shareit.client;
 
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
+    static final String ITEM = "item";
+    static final String ITEM_SEARCH = "item-search";
+    static final String OWNER_HEADER = "X-Item-Owner-Id";
+    static final int MAX_KNOWN_OWNERS = 100_000;
+    private static final String NON_OWNER = "non-owner";
+
+    private final RequestCoalescer coalescer;
+    private final Map<Long, Long> owners = new ConcurrentHashMap<>();
 
     public ItemClient(@Value("${shareit-server.url}") String serverUrl,
-                      RestTemplateBuilder builder) {
+                      RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareItServerRequestFactory,
+                      @Value("${shareit-server.pass-through:true}") boolean passThrough,
+                      RequestCoalescer coalescer) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(HttpClients.createDefault()))
-                .build());
+                .requestFactory(() -> shareItServerRequestFactory)
+                .build(), passThrough);
+        this.coalescer = coalescer;
+    }
+
+    public <T> ResponseEntity<Object> add(long userId, String idempotencyKey, T body) {
+        return postIdempotent("", userId, idempotencyKey, body);
     }
 
-    public <T> ResponseEntity<Object> add(long userId, T body) {
-        return post("", userId, body);
+    public ResponseEntity<Object> importItems(long userId, MediaType contentType, InputStream body) {
+        return postStream("/import", userId, contentType, body);
     }
 
     public <T> ResponseEntity<Object> patch(long userId, long itemId, T body) {
         return patch("/" + itemId, userId, body);
     }
 
+    /**
+     * Владелец видит в карточке бронирования, для остальных пользователей она одинакова. Сервер сообщает
+     * владельца в заголовке X-Item-Owner-Id, шлюз его запоминает, и запросы остальных пользователей
+     * объединяются по id вещи и запомненному владельцу. Ответ такого запроса проверяется: если владелец
+     * в нём другой (id переиспользуются после перезапуска сервера, data.sql делает RESTART IDENTITY),
+     * ведущим мог быть настоящий владелец, поэтому запись забывается, а каждый запрос повторяется от себя.
+     * Запросы владельца и запросы, пока владелец неизвестен, объединяются только с запросами того же
+     * пользователя. Известных владельцев не больше MAX_KNOWN_OWNERS, заголовок клиенту не отдаётся.
+     */
     public ResponseEntity<Object> get(long userId, long itemId) {
-        return get("/" + itemId, userId);
+        Long knownOwner = owners.get(itemId);
+        if (knownOwner != null && knownOwner != userId) {
+            ResponseEntity<Object> shared = coalescer.execute(ITEM, List.of(itemId, NON_OWNER, knownOwner),
+                    () -> get("/" + itemId, userId));
+            if (knownOwner.equals(owner(shared))) {
+                return withoutOwnerHeader(shared);
+            }
+            owners.remove(itemId, knownOwner);
+        }
+        ResponseEntity<Object> response = coalescer.execute(ITEM, List.of(itemId, userId),
+                () -> get("/" + itemId, userId));
+        Long owner = owner(response);
+        if (owner != null) {
+            if (owners.size() >= MAX_KNOWN_OWNERS) {
+                owners.clear();
+            }
+            owners.put(itemId, owner);
+        }
+        return withoutOwnerHeader(response);
     }
 
     public ResponseEntity<Object> getOwnerItems(long userId, int from, int size) {
@@ -41,14 +88,37 @@ public class ItemClient extends BaseClient {
                 Map.of("from", from, "size", size));
     }
 
-    public ResponseEntity<Object> search(String text, int from, int size) {
-        return get("/search?text={text}&from={from}&size={size}",
-                null,                                     // заголовок X-Sharer-User-Id не нужен
-                Map.of("text", text, "from", from, "size", size));
+    /**
+     * Потоковый ndjson-ответ читается один раз, поэтому такие запросы не объединяются.
+     */
+    public ResponseEntity<Object> search(String text, int from, int size, String accept) {
+        if (acceptsNdjson(accept)) {
+            // потоковая выдача - вся выборка, from/size сервер для неё не принимает
+            return getNegotiated("/search?text={text}", null, Map.of("text", text), accept);
+        }
+        Map<String, Object> parameters = Map.of("text", text, "from", from, "size", size);
+        return coalescer.execute(ITEM_SEARCH, List.of(text, from, size),
+                () -> get("/search?text={text}&from={from}&size={size}",
+                        null,                                     // заголовок X-Sharer-User-Id не нужен
+                        parameters));
     }
 
     public <T> ResponseEntity<Object> addComment(long userId, long itemId, T body) {
         return post("/" + itemId + "/comment", userId, body);
     }
-}
 
+    private static Long owner(ResponseEntity<Object> response) {
+        String owner = response.getHeaders().getFirst(OWNER_HEADER);
+        return owner != null ? Long.valueOf(owner) : null;
+    }
+
+    private static ResponseEntity<Object> withoutOwnerHeader(ResponseEntity<Object> response) {
+        if (!response.getHeaders().containsKey(OWNER_HEADER)) {
+            return response;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.remove(OWNER_HEADER);
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+}
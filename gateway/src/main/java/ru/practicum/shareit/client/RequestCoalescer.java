@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight для одинаковых одновременных GET: пока запрос к серверу по ключу выполняется, такие же
+ * запросы ждут его и получают тот же ответ. Ключ - эндпоинт и значения, которые передаёт клиент: параметры пути
+ * и запроса и id пользователя, если от него зависит ответ. Тело ответа pass-through - поток, который читается один раз, поэтому ответ
+ * ведущего запроса буферизуется в byte[]; для выключенных эндпоинтов ответ по-прежнему идёт потоком.
+ * Включение - shareit-server.coalescing.endpoints, счётчик gateway.coalescing.requests{endpoint, role}:
+ * role=leader ушёл на сервер, role=collapsed дождался чужого ответа.
+ */
+@Component
+public class RequestCoalescer {
+    static final String METRIC = "gateway.coalescing.requests";
+
+    private final Set<String> endpoints;
+    private final MeterRegistry meterRegistry;
+    private final Map<List<Object>, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(@Value("${shareit-server.coalescing.endpoints:}") Set<String> endpoints,
+                            MeterRegistry meterRegistry) {
+        this.endpoints = Set.copyOf(endpoints);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ResponseEntity<Object> execute(String endpoint, List<Object> key, Supplier<ResponseEntity<Object>> call) {
+        if (!endpoints.contains(endpoint)) {
+            return call.get();
+        }
+        List<Object> flightKey = List.of(endpoint, key);
+        CompletableFuture<ResponseEntity<Object>> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> leader = inFlight.putIfAbsent(flightKey, flight);
+        if (leader != null) {
+            counter(endpoint, "collapsed").increment();
+            return await(leader);
+        }
+        counter(endpoint, "leader").increment();
+        try {
+            ResponseEntity<Object> response = buffered(call.get());
+            flight.complete(response);
+            return response;
+        } catch (Throwable e) {
+            // и для Error: иначе ожидающие этот ответ запросы не дождались бы его никогда
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private static ResponseEntity<Object> await(CompletableFuture<ResponseEntity<Object>> leader) {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced request", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ResponseEntity<Object> buffered(ResponseEntity<Object> response) {
+        if (!(response.getBody() instanceof InputStreamResource resource)) {
+            return response;
+        }
+        try (InputStream body = resource.getInputStream()) {
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .body(body.readAllBytes());
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on reading coalesced response: " + e.getMessage(), e);
+        }
+    }
+
+    private Counter counter(String endpoint, String role) {
+        return Counter.builder(METRIC)
+                .tag("endpoint", endpoint)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
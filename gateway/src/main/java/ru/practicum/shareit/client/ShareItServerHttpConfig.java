@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+
+/**
+ * Один пул соединений с сервером ShareIt на все клиенты шлюза. Маршрут единственный, поэтому лимит
+ * на маршрут равен общему. Keep-alive берётся из ответа сервера, а если его там нет - keep-alive
+ * из настроек: он должен быть меньше keepAliveTimeout Tomcat на сервере, иначе шлюз будет брать
+ * из пула соединения, которые сервер уже закрыл. Простаивающие дольше idle-eviction соединения
+ * закрывает фоновый поток. Состояние пула - в метриках httpcomponents.httpclient.pool.*
+ * с тегом httpclient=shareit-server (leased, available, pending).
+ */
+@Configuration
+public class ShareItServerHttpConfig {
+    static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareItServerConnectionManager(
+            @Value("${shareit-server.pool.max-connections:200}") int maxConnections,
+            @Value("${shareit-server.pool.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${shareit-server.pool.response-timeout:PT30S}") Duration responseTimeout,
+            @Value("${shareit-server.pool.validate-after-inactivity:PT2S}") Duration validateAfterInactivity) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(responseTimeout))
+                        .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItServerHttpClient(
+            PoolingHttpClientConnectionManager shareItServerConnectionManager,
+            @Value("${shareit-server.pool.lease-timeout:PT5S}") Duration leaseTimeout,
+            @Value("${shareit-server.pool.response-timeout:PT30S}") Duration responseTimeout,
+            @Value("${shareit-server.pool.keep-alive:PT15S}") Duration keepAlive,
+            @Value("${shareit-server.pool.idle-eviction:PT10S}") Duration idleEviction) {
+        return HttpClients.custom()
+                .setConnectionManager(shareItServerConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(leaseTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareItServerRequestFactory(CloseableHttpClient shareItServerHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient);
+    }
+
+    @Bean
+    public PoolingHttpClientConnectionManagerMetricsBinder shareItServerPoolMetrics(
+            PoolingHttpClientConnectionManager shareItServerConnectionManager, MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManagerMetricsBinder binder =
+                new PoolingHttpClientConnectionManagerMetricsBinder(shareItServerConnectionManager, POOL_NAME);
+        binder.bindTo(meterRegistry);
+        return binder;
+    }
+}
@@ -1,10 +1,9 @@
 package ru.practicum.shareit.client;
 
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
@@ -16,11 +15,13 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     public UserClient(@Value("${shareit-server.url}") String serverUrl,
-                      RestTemplateBuilder builder) {
+                      RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareItServerRequestFactory,
+                      @Value("${shareit-server.pass-through:true}") boolean passThrough) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(HttpClients.createDefault()))
-                .build());
+                .requestFactory(() -> shareItServerRequestFactory)
+                .build(), passThrough);
     }
 
     public <T> ResponseEntity<Object> add(T body) {
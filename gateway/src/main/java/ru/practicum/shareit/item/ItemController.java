@@ -1,25 +1,46 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.client.ItemClient;
 import ru.practicum.shareit.comment.CommentDto;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Validated
 public class ItemController {
 
+    static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ItemClient client;
 
     @PostMapping
     public ResponseEntity<Object> add(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                      @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY, required = false)
+                                      String idempotencyKey,
                                       @Valid @RequestBody ItemDto dto) {
-        return client.add(userId, dto);
+        return client.add(userId, idempotencyKey, dto);
+    }
+
+    /**
+     * Импорт каталога (JSON-массив или CSV). Тело не разбирается на шлюзе, а потоком
+     * передаётся серверу: построчная проверка и отчёт об ошибках - там.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV_VALUE})
+    public ResponseEntity<Object> importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              HttpServletRequest request) throws IOException {
+        return client.importItems(userId, MediaType.parseMediaType(request.getContentType()),
+                request.getInputStream());
     }
 
     @PatchMapping("/{id}")
@@ -45,8 +66,9 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> search(@RequestParam String text,
                                          @RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "10") int size) {
-        return client.search(text, from, size);
+                                         @RequestParam(defaultValue = "10") int size,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return client.search(text, from, size, accept);
     }
 
     @PostMapping("/{id}/comment")
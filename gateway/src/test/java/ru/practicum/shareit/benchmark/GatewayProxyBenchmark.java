@@ -0,0 +1,116 @@
+package ru.practicum.shareit.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Накладные расходы шлюза на запрос: GET /items со списком из 200 вещей (~70 КБ JSON) через шлюз
+ * в режиме pass-through и с разбором ответа в Object и повторной сериализацией. Сервер заменён
+ * заглушкой на com.sun.net.httpserver, которая отдаёт готовые байты, поэтому разница между режимами -
+ * это работа самого шлюза. Память - сумма выделений всех живых потоков процесса за прогон.
+ * Не входит в mvn test, запуск: mvn test -pl gateway -Dtest=GatewayProxyBenchmark.
+ */
+@Slf4j
+class GatewayProxyBenchmark {
+    private static final int ITEMS = 200;
+    private static final int WARMUP = 1_000;
+    private static final int REQUESTS = 5_000;
+
+    HttpServer upstream;
+    byte[] payload;
+    HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void startUpstream() throws IOException {
+        StringJoiner items = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < ITEMS; i++) {
+            items.add("{\"id\":" + i + ",\"name\":\"Дрель " + i + "\",\"description\":\"Ударная дрель с набором свёрл\","
+                    + "\"available\":true,\"requestId\":null,"
+                    + "\"lastBooking\":{\"id\":" + (1000 + i) + ",\"bookerId\":7,\"start\":\"2025-01-01T10:00:00\","
+                    + "\"end\":\"2025-01-02T10:00:00\"},\"nextBooking\":null,"
+                    + "\"comments\":[{\"id\":" + i + ",\"text\":\"Отличная\",\"authorName\":\"Ann\","
+                    + "\"created\":\"2025-01-03T12:00:00\"}]}");
+        }
+        payload = items.toString().getBytes(StandardCharsets.UTF_8);
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.createContext("/items", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, payload.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(payload);
+            }
+        });
+        upstream.start();
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void ownerItems() throws Exception {
+        Result parsed = run(false);
+        Result passThrough = run(true);
+
+        log.info(String.format("%d requests, %d bytes each: parse+serialize %.0f us/req %.0f KB/req | "
+                        + "pass-through %.0f us/req %.0f KB/req",
+                REQUESTS, payload.length, parsed.micros, parsed.kilobytes, passThrough.micros, passThrough.kilobytes));
+        assertThat(passThrough.kilobytes).isLessThan(parsed.kilobytes);
+        assertThat(passThrough.micros).isLessThan(parsed.micros);
+    }
+
+    private Result run(boolean passThrough) throws Exception {
+        try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--logging.level.ru.practicum.shareit=INFO",
+                        "--shareit-server.url=http://localhost:" + upstream.getAddress().getPort(),
+                        "--shareit-server.pass-through=" + passThrough)) {
+            int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items?from=0&size=200"))
+                    .header("X-Sharer-User-Id", "7").build();
+            for (int i = 0; i < WARMUP; i++) {
+                send(request);
+            }
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+            long started = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                send(request);
+            }
+            double micros = (System.nanoTime() - started) / 1_000.0 / REQUESTS;
+            double kilobytes = (threads.getTotalThreadAllocatedBytes() - allocatedBefore) / 1024.0 / REQUESTS;
+            return new Result(micros, kilobytes);
+        }
+    }
+
+    private void send(HttpRequest request) throws Exception {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body().length).isGreaterThan(payload.length / 2);
+    }
+
+    private record Result(double micros, double kilobytes) {
+    }
+}
@@ -0,0 +1,232 @@
+package ru.practicum.shareit.benchmark;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Пропускная способность и p99 шлюза на GET /items/1 при тысячах одновременных соединений: Tomcat на пуле
+ * платформенных потоков (200) и на виртуальных потоках (spring.threads.virtual.enabled). Сервер заменён
+ * заглушкой, которая отвечает через LATENCY_MS, как сервер, ждущий базу. Пул соединений шлюза к серверу
+ * равен числу клиентов, чтобы ограничением были потоки шлюза, а не пул. Заодно JFR собирает события
+ * jdk.VirtualThreadPinned: закрепления потока-носителя внутри HttpClient быть не должно. Нагрузка, шлюз и
+ * заглушка живут в одной JVM, поэтому на соединение уходит ~4 дескриптора, и цифры имеют смысл только
+ * на машине, где ядер хватает всем трём. По умолчанию - 1000 соединений; уровни задаёт
+ * -Dbenchmark.connections=1000,5000,10000, и если ulimit -n меньше 4 × connections, тест пропускается,
+ * а не падает на "Too many open files".
+ * Не входит в mvn test, запуск: mvn test -pl gateway -Dtest=VirtualThreadLoadBenchmark.
+ */
+@Slf4j
+class VirtualThreadLoadBenchmark {
+    private static final int[] CONNECTIONS = Arrays.stream(System.getProperty("benchmark.connections", "1000")
+            .split(",")).map(String::strip).mapToInt(Integer::parseInt).toArray();
+    private static final int DESCRIPTORS_PER_CONNECTION = 4;
+    private static final long LATENCY_MS = 50;
+    // server.tomcat.threads.max по умолчанию: платформенный режим не выдаст больше 200 / LATENCY_MS запросов в секунду
+    private static final int TOMCAT_THREADS = 200;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASURE = Duration.ofSeconds(10);
+    private static final byte[] PAYLOAD = "{\"id\":1,\"name\":\"Дрель\",\"description\":\"Ударная дрель\",\"available\":true}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    static {
+        // по умолчанию заглушка держит не больше 200 простаивающих keep-alive соединений и закрывает остальные
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "30000");
+    }
+
+    HttpServer upstream;
+    ExecutorService upstreamExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    @BeforeEach
+    void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 20_000);
+        upstream.setExecutor(upstreamExecutor);
+        upstream.createContext("/items", exchange -> {
+            try {
+                Thread.sleep(LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, PAYLOAD.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(PAYLOAD);
+            }
+        });
+        upstream.start();
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        upstream.stop(0);
+        upstreamExecutor.close();
+    }
+
+    @Test
+    void platformVsVirtualThreads() throws Exception {
+        int maxConnections = Arrays.stream(CONNECTIONS).max().orElseThrow();
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof UnixOperatingSystemMXBean unix) {
+            long limit = unix.getMaxFileDescriptorCount();
+            assumeTrue(limit >= (long) DESCRIPTORS_PER_CONNECTION * maxConnections, () -> "ulimit -n " + limit
+                    + " мало для " + maxConnections + " соединений, нужно " + DESCRIPTORS_PER_CONNECTION * maxConnections);
+        }
+        Map<String, LongAdder> pinned = new ConcurrentHashMap<>();
+        try (RecordingStream jfr = new RecordingStream()) {
+            jfr.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+            jfr.onEvent("jdk.VirtualThreadPinned", event -> pinned
+                    .computeIfAbsent(pinnedAt(event.getStackTrace().getFrames()), frame -> new LongAdder())
+                    .increment());
+            jfr.startAsync();
+
+            for (int connections : CONNECTIONS) {
+                Result platform = run(false, connections);
+                Result virtual = run(true, connections);
+                log.info(String.format("%5d connections: platform %6.0f req/s p50 %4d ms p99 %5d ms errors %d | "
+                                + "virtual %6.0f req/s p50 %4d ms p99 %5d ms errors %d", connections,
+                        platform.throughput, platform.p50, platform.p99, platform.errors,
+                        virtual.throughput, virtual.p50, virtual.p99, virtual.errors));
+                assertThat(virtual.errors).isZero();
+                double threadBound = TOMCAT_THREADS * 1000.0 / LATENCY_MS;
+                if (platform.throughput >= 0.9 * threadBound) {
+                    // платформенный режим упёрся в пул потоков: виртуальные потоки не стоят в очереди
+                    assertThat(virtual.throughput).isGreaterThan(platform.throughput);
+                    assertThat(virtual.p99).isLessThan(platform.p99);
+                } else {
+                    log.warn(String.format("platform threads reached %.0f of %.0f req/s: the run is CPU-bound, "
+                            + "throughput is not compared", platform.throughput, threadBound));
+                }
+            }
+        }
+        pinned.forEach((frame, count) -> log.info("pinned {} times at {}", count.sum(), frame));
+        assertThat(pinned.keySet()).noneMatch(frame -> frame.startsWith("org.apache.hc"));
+    }
+
+    private Result run(boolean virtualThreads, int connections) throws Exception {
+        try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--logging.level.ru.practicum.shareit=INFO",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.max-connections=" + (connections * 2),
+                        "--server.tomcat.accept-count=" + connections,
+                        "--shareit-server.url=http://localhost:" + upstream.getAddress().getPort(),
+                        "--shareit-server.pool.max-connections=" + connections,
+                        "--shareit-server.pool.lease-timeout=PT60S")) {
+            int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/1"))
+                    .header("X-Sharer-User-Id", "7")
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+            load(request, connections, WARMUP);
+            return load(request, connections, MEASURE);
+        }
+    }
+
+    /**
+     * Замкнутый цикл: каждый из connections клиентов отправляет следующий запрос сразу после ответа.
+     */
+    private Result load(HttpRequest request, int connections, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> workers = new ArrayList<>(connections);
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[64];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - sent;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long[] all = workers.stream().map(VirtualThreadLoadBenchmark::join)
+                .flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all.length / seconds, percentile(all, 0.50), percentile(all, 0.99), errors.get());
+    }
+
+    private static long[] join(Future<long[]> worker) {
+        try {
+            return worker.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return -1;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1_000_000;
+    }
+
+    /**
+     * Первый кадр вне JDK: код, который держал монитор или вызвал native-метод.
+     */
+    private static String pinnedAt(List<RecordedFrame> frames) {
+        return frames.stream()
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .filter(name -> !name.startsWith("java.") && !name.startsWith("jdk.") && !name.startsWith("sun."))
+                .findFirst()
+                .orElse(frames.isEmpty() ? "?" : frames.get(0).getMethod().getType().getName());
+    }
+
+    private record Result(double throughput, long p50, long p99, long errors) {
+    }
+}
@@ -0,0 +1,224 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+class BaseClientTest {
+    private static final String JSON = "{\"id\":1,\"name\":\"Drill\"}";
+    private static final RequestCoalescer COALESCER = new RequestCoalescer(Set.of(), new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("pass-through: тело, статус и Content-Type сервера без разбора JSON")
+    void passThrough_copiesBodyAndHeaders() throws IOException {
+        ItemClient client = new ItemClient("http://server", new RestTemplateBuilder(), new SimpleClientHttpRequestFactory(), true, COALESCER);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://server/items/1"))
+                .andExpect(header("X-Sharer-User-Id", "7"))
+                .andRespond(withSuccess(JSON, MediaType.APPLICATION_JSON)
+                        .header("X-Trace", "abc").header(HttpHeaders.CONNECTION, "keep-alive"));
+
+        ResponseEntity<Object> response = client.get(7L, 1L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getFirst("X-Trace")).isEqualTo("abc");
+        assertThat(response.getHeaders().containsKey(HttpHeaders.CONNECTION)).isFalse();
+        assertThat(read(response)).isEqualTo(JSON);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("pass-through: ошибка сервера отдаётся с тем же статусом и телом")
+    void passThrough_error() throws IOException {
+        UserClient client = new UserClient("http://server", new RestTemplateBuilder(), new SimpleClientHttpRequestFactory(), true);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://server/users"))
+                .andExpect(content().json("{\"email\":\"a@mail.com\"}"))
+                .andRespond(withStatus(HttpStatus.CONFLICT).contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"email exists\"}"));
+
+        ResponseEntity<Object> response = client.add(Map.of("email", "a@mail.com"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(read(response)).isEqualTo("{\"error\":\"email exists\"}");
+    }
+
+    @Test
+    @DisplayName("pass-through: пустой ответ без тела")
+    void passThrough_emptyBody() {
+        UserClient client = new UserClient("http://server", new RestTemplateBuilder(), new SimpleClientHttpRequestFactory(), true);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://server/users/1")).andRespond(withNoContent());
+
+        ResponseEntity<Object> response = client.delete(1L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.hasBody()).isFalse();
+    }
+
+    @Test
+    @DisplayName("без pass-through тело разбирается в Map/List")
+    void parsed() {
+        ItemClient client = new ItemClient("http://server", new RestTemplateBuilder(), new SimpleClientHttpRequestFactory(), false, COALESCER);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://server/items/1")).andRespond(withSuccess(JSON, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.get(7L, 1L);
+
+        assertThat(response.getBody()).isEqualTo(Map.of("id", 1, "name", "Drill"));
+    }
+
+    @Test
+    @DisplayName("Accept: application/x-ndjson уходит на сервер, ответ идёт потоком и без pass-through")
+    void ndjson_forwardedAndStreamed() throws IOException {
+        String lines = JSON + "\n" + JSON + "\n";
+        ItemClient client = new ItemClient("http://server", new RestTemplateBuilder(), new SimpleClientHttpRequestFactory(), false,
+                new RequestCoalescer(Set.of(ItemClient.ITEM_SEARCH), new SimpleMeterRegistry()));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://server/items/search?text=drill"))
+                .andExpect(header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE))
+                .andRespond(withSuccess(lines, MediaType.APPLICATION_NDJSON));
+
+        ResponseEntity<Object> response = client.search("drill", 0, 10, MediaType.APPLICATION_NDJSON_VALUE);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(read(response)).isEqualTo(lines);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("прочие Accept клиента не пересылаются: сервер получает application/json")
+    void nonNdjsonAccept_keepsJson() {
+        BookingClient client = new BookingClient("http://server", new RestTemplateBuilder(), new SimpleClientHttpRequestFactory(), false);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://server/bookings/owner?state=ALL&from=0&size=10"))
+                .andExpect(header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.getAllByOwner(7L, "ALL", 0, 10, "text/html, */*");
+
+        assertThat(response.getBody()).isEqualTo(List.of());
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("импорт: тело уходит на сервер потоком (chunked), а не собирается в памяти целиком")
+    void postStream_sendsChunkedBody() throws IOException {
+        HttpServer upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        AtomicReference<String> transferEncoding = new AtomicReference<>();
+        AtomicReference<String> received = new AtomicReference<>();
+        upstream.createContext("/items/import", exchange -> {
+            transferEncoding.set(exchange.getRequestHeaders().getFirst(HttpHeaders.TRANSFER_ENCODING));
+            received.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        upstream.start();
+        try {
+            ItemClient client = new ItemClient("http://localhost:" + upstream.getAddress().getPort(),
+                    new RestTemplateBuilder(), new HttpComponentsClientHttpRequestFactory(), true, COALESCER);
+            String csv = "name,description,available\nDrill,d,true\n";
+
+            ResponseEntity<Object> response = client.importItems(7L, new MediaType("text", "csv"),
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(transferEncoding.get()).isEqualTo("chunked");
+            assertThat(received.get()).isEqualTo(csv);
+        } finally {
+            upstream.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("item: когда владелец известен, запросы остальных объединяются по id вещи, владельца - отдельно")
+    @SuppressWarnings("unchecked")
+    void item_coalescesNonOwnersOnItemId_onceOwnerIsKnown() {
+        RequestCoalescer coalescer = mock(RequestCoalescer.class);
+        when(coalescer.execute(any(), any(), any()))
+                .thenAnswer(inv -> inv.getArgument(2, Supplier.class).get());
+        ItemClient client = new ItemClient("http://server", new RestTemplateBuilder(), new SimpleClientHttpRequestFactory(), true, coalescer);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        for (int i = 0; i < 4; i++) {
+            server.expect(requestTo("http://server/items/5"))
+                    .andRespond(withSuccess(JSON, MediaType.APPLICATION_JSON).header(ItemClient.OWNER_HEADER, "1"));
+        }
+
+        assertThat(client.get(7L, 5L).getHeaders().containsKey(ItemClient.OWNER_HEADER)).isFalse();
+        client.get(8L, 5L);
+        client.get(9L, 5L);
+        client.get(1L, 5L);
+
+        InOrder order = inOrder(coalescer);
+        order.verify(coalescer).execute(eq(ItemClient.ITEM), eq(List.of(5L, 7L)), any());
+        order.verify(coalescer, times(2)).execute(eq(ItemClient.ITEM), eq(List.of(5L, "non-owner", 1L)), any());
+        order.verify(coalescer).execute(eq(ItemClient.ITEM), eq(List.of(5L, 1L)), any());
+        server.verify();
+    }
+
+    @Test
+    void item_staleOwner_isForgottenAndSharedResponseNotUsed() {
+        RequestCoalescer coalescer = mock(RequestCoalescer.class);
+        when(coalescer.execute(any(), any(), any()))
+                .thenAnswer(inv -> inv.getArgument(2, Supplier.class).get());
+        ItemClient client = new ItemClient("http://server", new RestTemplateBuilder(), new SimpleClientHttpRequestFactory(), true, coalescer);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://server/items/5"))
+                .andRespond(withSuccess(JSON, MediaType.APPLICATION_JSON).header(ItemClient.OWNER_HEADER, "1"));
+        server.expect(requestTo("http://server/items/5"))
+                .andRespond(withSuccess("{\"owner\":true}", MediaType.APPLICATION_JSON).header(ItemClient.OWNER_HEADER, "8"));
+        server.expect(requestTo("http://server/items/5"))
+                .andRespond(withSuccess("{\"owner\":true}", MediaType.APPLICATION_JSON).header(ItemClient.OWNER_HEADER, "8"));
+        server.expect(requestTo("http://server/items/5"))
+                .andRespond(withSuccess(JSON, MediaType.APPLICATION_JSON).header(ItemClient.OWNER_HEADER, "8"));
+
+        client.get(7L, 5L);
+        ResponseEntity<Object> ownerView = client.get(8L, 5L);
+        client.get(9L, 5L);
+
+        assertThat(ownerView.getHeaders().containsKey(ItemClient.OWNER_HEADER)).isFalse();
+        InOrder order = inOrder(coalescer);
+        order.verify(coalescer).execute(eq(ItemClient.ITEM), eq(List.of(5L, 7L)), any());
+        order.verify(coalescer).execute(eq(ItemClient.ITEM), eq(List.of(5L, "non-owner", 1L)), any());
+        order.verify(coalescer).execute(eq(ItemClient.ITEM), eq(List.of(5L, 8L)), any());
+        order.verify(coalescer).execute(eq(ItemClient.ITEM), eq(List.of(5L, "non-owner", 8L)), any());
+        server.verify();
+    }
+
+    private static String read(ResponseEntity<Object> response) throws IOException {
+        assertThat(response.getBody()).isInstanceOf(InputStreamResource.class);
+        try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
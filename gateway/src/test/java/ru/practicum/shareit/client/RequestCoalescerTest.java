@@ -0,0 +1,146 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RequestCoalescerTest {
+    private static final int WAITERS = 5;
+    private static final byte[] JSON = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(Set.of(ItemClient.ITEM_SEARCH), registry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    @DisplayName("одинаковые одновременные запросы ждут один запрос к серверу и получают его ответ")
+    void identicalRequests_shareOneUpstreamCall() throws Exception {
+        List<Future<ResponseEntity<Object>>> responses = runConcurrently(List.of("drill", 0, 10), () -> {
+            awaitRelease();
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                    .body(new InputStreamResource(new ByteArrayInputStream(JSON)));
+        });
+
+        for (Future<ResponseEntity<Object>> response : responses) {
+            assertThat(response.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.get().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+            assertThat((byte[]) response.get().getBody()).isEqualTo(JSON);
+        }
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(count("collapsed")).isEqualTo(WAITERS);
+    }
+
+    @Test
+    @DisplayName("ошибка ведущего запроса получают все ждущие")
+    void leaderFailure_propagatesToWaiters() throws Exception {
+        List<Future<ResponseEntity<Object>>> responses = runConcurrently(List.of("drill", 0, 10), () -> {
+            awaitRelease();
+            throw new ResourceAccessException("timeout");
+        });
+
+        for (Future<ResponseEntity<Object>> response : responses) {
+            assertThatThrownBy(response::get).hasCauseInstanceOf(ResourceAccessException.class);
+        }
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Error ведущего запроса тоже доходит до ждущих, а не оставляет их висеть")
+    void leaderError_propagatesToWaiters() throws Exception {
+        List<Future<ResponseEntity<Object>>> responses = runConcurrently(List.of("drill", 0, 10), () -> {
+            awaitRelease();
+            throw new OutOfMemoryError("test");
+        });
+
+        for (Future<ResponseEntity<Object>> response : responses) {
+            assertThatThrownBy(response::get).hasCauseInstanceOf(OutOfMemoryError.class);
+        }
+    }
+
+    @Test
+    @DisplayName("после ответа ключ освобождается: следующий запрос снова идёт на сервер")
+    void completedFlight_isNotCached() {
+        coalescer.execute(ItemClient.ITEM_SEARCH, List.of("drill", 0, 10), this::upstream);
+        coalescer.execute(ItemClient.ITEM_SEARCH, List.of("drill", 0, 10), this::upstream);
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(count("collapsed")).isZero();
+    }
+
+    @Test
+    @DisplayName("выключенный эндпоинт: каждый запрос идёт на сервер, тело не буферизуется")
+    void disabledEndpoint_passesThrough() {
+        InputStreamResource body = new InputStreamResource(new ByteArrayInputStream(JSON));
+
+        ResponseEntity<Object> response = coalescer.execute(ItemClient.ITEM, List.of(1L, 7L),
+                () -> ResponseEntity.ok(body));
+
+        assertThat(response.getBody()).isSameAs(body);
+        assertThat(registry.find(RequestCoalescer.METRIC).counters()).isEmpty();
+    }
+
+    private List<Future<ResponseEntity<Object>>> runConcurrently(List<Object> key,
+                                                                    Supplier<ResponseEntity<Object>> upstream)
+            throws InterruptedException {
+        List<Future<ResponseEntity<Object>>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(WAITERS + 1)) {
+            responses.add(executor.submit(() -> coalescer.execute(ItemClient.ITEM_SEARCH, key, () -> {
+                upstreamCalls.incrementAndGet();
+                return upstream.get();
+            })));
+            while (count("leader") == 0) {
+                Thread.onSpinWait();
+            }
+            for (int i = 0; i < WAITERS; i++) {
+                responses.add(executor.submit(() -> coalescer.execute(ItemClient.ITEM_SEARCH, key, this::upstream)));
+            }
+            while (count("collapsed") < WAITERS) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+        return responses;
+    }
+
+    private ResponseEntity<Object> upstream() {
+        upstreamCalls.incrementAndGet();
+        return ResponseEntity.ok(JSON);
+    }
+
+    private double count(String role) {
+        return registry.find(RequestCoalescer.METRIC).tag("role", role).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ShareItServerHttpConfigTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withUserConfiguration(ShareItServerHttpConfig.class);
+
+    @Test
+    @DisplayName("пул: лимиты из настроек, лимит маршрута равен общему")
+    void pool_limitsFromProperties() {
+        runner.withPropertyValues("shareit-server.pool.max-connections=50").run(context -> {
+            PoolingHttpClientConnectionManager pool = context.getBean(PoolingHttpClientConnectionManager.class);
+            assertThat(pool.getMaxTotal()).isEqualTo(50);
+            assertThat(pool.getDefaultMaxPerRoute()).isEqualTo(50);
+            assertThat(context).hasSingleBean(ClientHttpRequestFactory.class);
+        });
+    }
+
+    @Test
+    @DisplayName("пул: leased/available/pending в метриках с тегом httpclient=shareit-server")
+    void pool_metrics() {
+        runner.run(context -> {
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            assertThat(registry.find("httpcomponents.httpclient.pool.total.connections")
+                    .tags("httpclient", ShareItServerHttpConfig.POOL_NAME, "state", "leased").gauge()).isNotNull();
+            assertThat(registry.find("httpcomponents.httpclient.pool.total.connections")
+                    .tags("httpclient", ShareItServerHttpConfig.POOL_NAME, "state", "available").gauge()).isNotNull();
+            assertThat(registry.find("httpcomponents.httpclient.pool.total.pending")
+                    .tags("httpclient", ShareItServerHttpConfig.POOL_NAME).gauge()).isNotNull();
+        });
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchMode;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BookingClient;
 
@@ -21,6 +22,7 @@ import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -68,7 +70,7 @@ class BookingControllerGatewayTest {
                 LocalDateTime.now().plusDays(1),
                 LocalDateTime.now().plusDays(2));
 
-        when(client.bookItem(eq(1L), any()))
+        when(client.bookItem(eq(1L), isNull(), any()))
                 .thenReturn(ResponseEntity.status(HttpStatus.CREATED).body(resp));
 
         mvc.perform(post("/bookings")
@@ -79,6 +81,56 @@ class BookingControllerGatewayTest {
                 .andExpect(jsonPath("$.status", is("WAITING")));
     }
 
+    @Test
+    @DisplayName("POST /bookings – Idempotency-Key клиента уходит на сервер")
+    void createBooking_forwardsIdempotencyKey() throws Exception {
+        var dto = new BookItemRequestDto(2L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        when(client.bookItem(eq(1L), eq("retry-1"), any()))
+                .thenReturn(ResponseEntity.status(HttpStatus.CREATED).body(resp));
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+
+        verify(client).bookItem(eq(1L), eq("retry-1"), any());
+    }
+
+    @Test
+    @DisplayName("POST /bookings/batch – корзина передаётся на сервер с режимом")
+    void bookItems_ok() throws Exception {
+        var dto = new BookItemRequestDto(2L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        when(client.bookItems(eq(1L), eq(BookingBatchMode.PER_ITEM), anyList()))
+                .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                        .body(List.of(Map.of("itemId", 2, "outcome", "CREATED", "booking", resp))));
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("mode", "PER_ITEM")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(dto))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].outcome", is("CREATED")));
+    }
+
+    @Test
+    @DisplayName("POST /bookings/batch – невалидная позиция → 400 BAD REQUEST")
+    void bookItems_invalidElement() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        var ok = new BookItemRequestDto(2L, now.plusDays(1), now.plusDays(2));
+        var bad = new BookItemRequestDto(3L, now.plusDays(2), now.plusDays(1));
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(ok, bad))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(client);
+    }
+
     @Test
     void getOne_ok() throws Exception {
         when(client.getBooking(1L, 1L)).thenReturn(ResponseEntity.ok(resp));
@@ -104,9 +156,39 @@ class BookingControllerGatewayTest {
                 .andExpect(jsonPath("$.status", is("APPROVED")));
     }
 
+    @Test
+    @DisplayName("PATCH /bookings/bulk – список id передаётся на сервер, ответ по каждому id")
+    void decideAll_ok() throws Exception {
+        when(client.decideAll(1L, List.of(1L, 2L), true))
+                .thenReturn(ResponseEntity.ok(List.of(
+                        Map.of("bookingId", 1, "outcome", "DECIDED"),
+                        Map.of("bookingId", 2, "outcome", "CONFLICT"))));
+
+        mvc.perform(patch("/bookings/bulk")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].outcome", is("CONFLICT")));
+    }
+
+    @Test
+    @DisplayName("PATCH /bookings/bulk – пустой список → 400 BAD REQUEST")
+    void decideAll_empty() throws Exception {
+        mvc.perform(patch("/bookings/bulk")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(client);
+    }
+
     @Test
     void ownerBookings_ok() throws Exception {
-        when(client.getAllByOwner(1L, "ALL"))
+        when(client.getAllByOwner(1L, "ALL", 0, 10, null))
                 .thenReturn(ResponseEntity.ok(List.of(resp)));
 
         mvc.perform(get("/bookings/owner")
@@ -116,6 +198,29 @@ class BookingControllerGatewayTest {
                 .andExpect(jsonPath("$[0].id", is(1)));
     }
 
+    @Test
+    @DisplayName("GET /bookings/owner – from/size передаются на сервер")
+    void ownerBookings_paged() throws Exception {
+        when(client.getAllByOwner(1L, "ALL", 20, 5, null))
+                .thenReturn(ResponseEntity.ok(List.of(resp)));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("from", "20")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    @DisplayName("GET /bookings/owner – size=0 → 400 BAD REQUEST")
+    void ownerBookings_badSize() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /bookings – невалидный state → 400 BAD REQUEST")
     void listBookings_badState() throws Exception {
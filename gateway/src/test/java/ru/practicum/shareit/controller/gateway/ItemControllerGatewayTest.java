@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.*;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -14,6 +15,10 @@ import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.ItemDto;
 import ru.practicum.shareit.comment.CommentDto;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -34,7 +39,7 @@ class ItemControllerGatewayTest {
 
     @Test
     void addItem_ok() throws Exception {
-        when(client.add(eq(1L), any()))
+        when(client.add(eq(1L), isNull(), any()))
                 .thenReturn(ResponseEntity.status(HttpStatus.CREATED).body(sample));
 
         mvc.perform(post("/items")
@@ -58,6 +63,36 @@ class ItemControllerGatewayTest {
         verifyNoInteractions(client);
     }
 
+    @Test
+    void importCsv_bodyIsPassedThroughUnparsed() throws Exception {
+        String csv = "name,description,available\n,no name,true\n";
+        when(client.importItems(eq(1L), any(), any())).thenAnswer(invocation -> {
+            InputStream body = invocation.getArgument(2);
+            String received = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            return ResponseEntity.ok(received.equals(csv) ? "{\"received\":1}" : "{}");
+        });
+
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("received")));
+
+        verify(client).importItems(eq(1L), eq(MediaType.parseMediaType("text/csv")), any());
+    }
+
+    @Test
+    void import_unsupportedType() throws Exception {
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<items/>"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(client);
+    }
+
     @Test
     void patch_ok() throws Exception {
         when(client.patch(eq(1L), eq(1L), any()))
@@ -82,6 +117,21 @@ class ItemControllerGatewayTest {
                 .andExpect(jsonPath("$.description", is("Cordless")));
     }
 
+    @Test
+    @DisplayName("GET /items/{id} - тело ответа сервера в режиме pass-through пишется как есть")
+    void get_passThroughBody() throws Exception {
+        String json = "{\"id\":1,\"name\":\"Drill\",\"lastBooking\":null}";
+        when(client.get(1L, 1L)).thenReturn(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new InputStreamResource(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))));
+
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(json));
+    }
+
     @Test
     void ownerItems_ok() throws Exception {
         when(client.getOwnerItems(1L, 0, 10))
@@ -96,7 +146,7 @@ class ItemControllerGatewayTest {
 
     @Test
     void search_ok() throws Exception {
-        when(client.search("drill", 0, 10))
+        when(client.search("drill", 0, 10, null))
                 .thenReturn(ResponseEntity.ok(java.util.List.of(sample)));
 
         mvc.perform(get("/items/search")
@@ -12,14 +12,21 @@ import ru.practicum.shareit.user.User;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_booker_start_id", columnList = "booker_id, start_date DESC, id DESC"),
+        @Index(name = "idx_bookings_item_status_start", columnList = "item_id, status, start_date")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
+    // EXCLUDE-ограничение из schema.sql (только PostgreSQL): подтверждённые брони одной вещи не пересекаются
+    public static final String NO_OVERLAP_CONSTRAINT = "bookings_no_overlap";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
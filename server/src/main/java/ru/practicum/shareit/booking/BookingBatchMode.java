@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Режим пакетного бронирования: ALL_OR_NOTHING - ошибка по любой вещи отменяет весь пакет,
+ * PER_ITEM - сохраняются брони на подходящие вещи, по остальным возвращается ошибка.
+ */
+public enum BookingBatchMode {
+    ALL_OR_NOTHING, PER_ITEM
+}
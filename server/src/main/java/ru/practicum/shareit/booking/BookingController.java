@@ -1,10 +1,23 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.idempotency.IdempotencyService;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.streaming.NdjsonWriter;
+import ru.practicum.shareit.streaming.Streaming;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -12,16 +25,31 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, IdempotencyService idempotencyService,
+                             ObjectMapper objectMapper) {
         this.bookingService = bookingService;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BookingResponseDto create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                     @RequestHeader(value = IdempotencyService.HEADER, required = false) String key,
                                      @RequestBody BookingRequestDto dto) {
-        return bookingService.create(userId, dto);
+        return idempotencyService.execute("POST /bookings", userId, key, dto, BookingResponseDto.class,
+                () -> bookingService.create(userId, dto));
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<BookingBatchResultDto> createAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @RequestParam(defaultValue = "ALL_OR_NOTHING") BookingBatchMode mode,
+                                                 @RequestBody List<BookingRequestDto> dtos) {
+        return bookingService.createAll(userId, dtos, mode);
     }
 
     @PatchMapping("/{bookingId}")
@@ -31,6 +59,13 @@ public class BookingController {
         return bookingService.approve(userId, bookingId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public List<BookingDecisionDto> decideAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestParam boolean approved,
+                                              @RequestBody List<Long> bookingIds) {
+        return bookingService.decideAll(userId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto getById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                       @PathVariable("bookingId") Long bookingId) {
@@ -39,13 +74,37 @@ public class BookingController {
 
     @GetMapping
     public List<BookingResponseDto> getAllByBooker(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getAllByBooker(userId, state);
+                                                   @RequestParam(defaultValue = "ALL") String state,
+                                                   @RequestParam(defaultValue = "0") int from,
+                                                   @RequestParam(defaultValue = "10") int size,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime afterStart,
+                                                   @RequestParam(required = false) Long afterId) {
+        return bookingService.getAllByBooker(userId, state, new PageParams(from, size, afterStart, afterId));
     }
 
     @GetMapping("/owner")
     public List<BookingResponseDto> getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                  @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getAllByOwner(userId, state);
+                                                  @RequestParam(defaultValue = "ALL") String state,
+                                                  @RequestParam(defaultValue = "0") int from,
+                                                  @RequestParam(defaultValue = "10") int size,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime afterStart,
+                                                  @RequestParam(required = false) Long afterId) {
+        return bookingService.getAllByOwner(userId, state, new PageParams(from, size, afterStart, afterId));
+    }
+
+    @GetMapping(value = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                 @RequestParam(defaultValue = "ALL") String state,
+                                 @RequestParam(required = false) Integer from,
+                                 @RequestParam(required = false) Integer size,
+                                 HttpServletRequest request, HttpServletResponse response) throws IOException {
+        NdjsonWriter<BookingResponseDto> writer = NdjsonWriter.open(objectMapper, request, response);
+        Streaming.rejectPaging(from, size);
+        bookingService.streamAllByOwner(userId, state, writer);
+        writer.flush();
     }
 }
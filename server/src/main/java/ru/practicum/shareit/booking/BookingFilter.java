@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.ValidationException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия выборки бронирований для списков: чьи брони (арендатора или владельца вещей)
+ * и какое состояние. Незаданные границы (null) не участвуют в запросе.
+ */
+public record BookingFilter(Long bookerId, Long ownerId, BookingStatus status,
+                            LocalDateTime startBefore, LocalDateTime startAfter,
+                            LocalDateTime endBefore, LocalDateTime endAfter) {
+
+    public static BookingFilter byBooker(Long bookerId, String state, LocalDateTime now) {
+        return of(bookerId, null, state, now);
+    }
+
+    public static BookingFilter byOwner(Long ownerId, String state, LocalDateTime now) {
+        return of(null, ownerId, state, now);
+    }
+
+    private static BookingFilter of(Long bookerId, Long ownerId, String state, LocalDateTime now) {
+        return switch (state.toUpperCase()) {
+            case "CURRENT" -> new BookingFilter(bookerId, ownerId, null, now, null, null, now);
+            case "PAST" -> new BookingFilter(bookerId, ownerId, null, null, null, now, null);
+            case "FUTURE" -> new BookingFilter(bookerId, ownerId, null, null, now, null, null);
+            case "WAITING" -> new BookingFilter(bookerId, ownerId, BookingStatus.WAITING, null, null, null, null);
+            case "REJECTED" -> new BookingFilter(bookerId, ownerId, BookingStatus.REJECTED, null, null, null, null);
+            case "ALL" -> new BookingFilter(bookerId, ownerId, null, null, null, null, null);
+            default -> throw new ValidationException("Unknown state");
+        };
+    }
+}
@@ -2,6 +2,8 @@ package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
+import ru.practicum.shareit.booking.dto.UserShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -12,8 +14,8 @@ public class BookingMapper {
 
         return BookingResponseDto.builder()
                 .id(booking.getId())
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(new ItemShortDto(booking.getItem().getId(), booking.getItem().getName()))
+                .booker(new UserShortDto(booking.getBooker().getId(), booking.getBooker().getName()))
                 .status(booking.getStatus())
                 .start(booking.getStart())
                 .end(booking.getEnd())
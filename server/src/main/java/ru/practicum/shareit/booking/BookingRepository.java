@@ -1,12 +1,16 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingViewRepository {
 
     @Query("SELECT b FROM Booking b WHERE b.booker.id=:id AND b.start > CURRENT_TIMESTAMP ORDER BY b.start DESC")
     List<Booking> findFutureByBooker(Long id);
@@ -18,34 +22,39 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     Optional<Booking> findTopByItemIdAndStartAfterAndStatusOrderByStartAsc(Long itemId, LocalDateTime now, BookingStatus status);
 
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "WHERE b.id = :id AND b.status = ru.practicum.shareit.booking.BookingStatus.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId) " +
+            "AND NOT EXISTS (SELECT o.id FROM Booking o WHERE o.item.id = b.item.id " +
+            "  AND o.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "  AND o.start < b.end AND o.end > b.start)")
+    int approveIfWaiting(@Param("id") Long bookingId, @Param("ownerId") Long ownerId);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ru.practicum.shareit.booking.BookingStatus.REJECTED " +
+            "WHERE b.id = :id AND b.status = ru.practicum.shareit.booking.BookingStatus.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int rejectIfWaiting(@Param("id") Long bookingId, @Param("ownerId") Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH i.owner JOIN FETCH b.booker " +
+            "WHERE b.id IN :ids ORDER BY b.id")
+    List<Booking> findAllByIdInForUpdate(@Param("ids") Collection<Long> bookingIds);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingSlot(b.item.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "AND b.start < :to AND b.end > :from")
+    List<BookingSlot> findApprovedSlots(@Param("itemIds") Collection<Long> itemIds,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status " +
+            "WHERE b.id IN :ids AND b.status = ru.practicum.shareit.booking.BookingStatus.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int decideAllIfWaiting(@Param("ids") Collection<Long> bookingIds, @Param("ownerId") Long ownerId,
+                           @Param("status") BookingStatus status);
+
     boolean existsByBooker_IdAndItemIdAndEndBeforeAndStatus(
             Long bookerId, Long itemId, LocalDateTime before, BookingStatus status);
-
-    List<Booking> findByBookerIdOrderByStartDesc(Long userId);
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long userId, LocalDateTime now1, LocalDateTime now2);
-
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(
-            Long userId, LocalDateTime now);
-
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(
-            Long userId, LocalDateTime now);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(
-            Long userId, BookingStatus status);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long userId);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long userId, LocalDateTime now1, LocalDateTime now2);
-
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(
-            Long userId, LocalDateTime now);
-
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(
-            Long userId, LocalDateTime now);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(
-            Long userId, BookingStatus status);
 }
@@ -1,18 +1,28 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.pagination.PageParams;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingResponseDto create(Long userId, BookingRequestDto bookingRequestDto);
 
+    List<BookingBatchResultDto> createAll(Long userId, List<BookingRequestDto> dtos, BookingBatchMode mode);
+
     BookingResponseDto approve(Long userId, Long bookingId, boolean approved);
 
+    List<BookingDecisionDto> decideAll(Long userId, List<Long> bookingIds, boolean approved);
+
     BookingResponseDto getById(Long userId, Long bookingId);
 
-    List<BookingResponseDto> getAllByBooker(Long userId, String state);
+    List<BookingResponseDto> getAllByBooker(Long userId, String state, PageParams page);
+
+    List<BookingResponseDto> getAllByOwner(Long userId, String state, PageParams page);
 
-    List<BookingResponseDto> getAllByOwner(Long userId, String state);
+    void streamAllByOwner(Long userId, String state, Consumer<BookingResponseDto> sink);
 }
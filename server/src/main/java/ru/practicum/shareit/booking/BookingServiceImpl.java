@@ -1,36 +1,62 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.ValidationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto.Outcome;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookingServiceImpl implements BookingService {
+    // тот же предел, что и @Size на пакетных эндпоинтах шлюза: сервер не полагается на то, что запрос прошёл шлюз
+    public static final int MAX_BATCH_SIZE = 100;
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemDetailCache itemDetailCache;
 
-    public BookingServiceImpl(BookingRepository bookingRepository, ItemRepository itemRepository, UserRepository userRepository) {
+    public BookingServiceImpl(BookingRepository bookingRepository, ItemRepository itemRepository,
+                              UserRepository userRepository, ItemDetailCache itemDetailCache) {
         this.bookingRepository = bookingRepository;
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
+        this.itemDetailCache = itemDetailCache;
     }
 
     @Override
     public BookingResponseDto create(Long userId, BookingRequestDto dto) {
         User booker = userRepository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
-
         Item item = itemRepository.findById(dto.getItemId())
                 .orElseThrow(() -> new NoSuchElementException("Item not found"));
         if (!item.getAvailable()) {
@@ -38,21 +64,141 @@ public class BookingServiceImpl implements BookingService {
         }
         Booking booking = BookingMapper.toModel(dto, item, booker, BookingStatus.WAITING);
 
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        BookingResponseDto created = BookingMapper.toDto(bookingRepository.save(booking));
+        itemDetailCache.evict(item.getId());
+        return created;
+    }
+
+    /**
+     * Бронирование нескольких вещей одним вызовом: арендатор и все вещи читаются двумя запросами
+     * (вещи - одним IN), проверки идут в памяти, брони вставляются JDBC-пакетами (hibernate.jdbc.batch_size)
+     * в одной транзакции.
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createAll(Long userId, List<BookingRequestDto> dtos, BookingBatchMode mode) {
+        checkBatchSize(dtos);
+        User booker = userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found"));
+        Map<Long, Item> items = itemRepository.findByIdIn(dtos.stream().map(BookingRequestDto::getItemId).toList())
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[dtos.size()];
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            BookingRequestDto dto = dtos.get(i);
+            Item item = items.get(dto.getItemId());
+            if (item == null) {
+                results[i] = BookingBatchResultDto.failed(dto.getItemId(),
+                        BookingBatchResultDto.Outcome.NOT_FOUND, "Item not found");
+            } else if (!item.getAvailable()) {
+                results[i] = BookingBatchResultDto.failed(dto.getItemId(),
+                        BookingBatchResultDto.Outcome.UNAVAILABLE, "Товар недоступен");
+            } else {
+                bookings.add(BookingMapper.toModel(dto, item, booker, BookingStatus.WAITING));
+            }
+        }
+        if (mode == BookingBatchMode.ALL_OR_NOTHING && bookings.size() < dtos.size()) {
+            BookingBatchResultDto failed = Arrays.stream(results).filter(Objects::nonNull).findFirst().orElseThrow();
+            String message = failed.getError() + ": " + failed.getItemId();
+            throw failed.getOutcome() == BookingBatchResultDto.Outcome.NOT_FOUND
+                    ? new NoSuchElementException(message)
+                    : new ValidationException(message);
+        }
+
+        Iterator<Booking> created = bookingRepository.saveAll(bookings).iterator();
+        itemDetailCache.evictAll(bookings.stream().map(booking -> booking.getItem().getId()).distinct().toList());
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = BookingBatchResultDto.created(BookingMapper.toDto(created.next()));
+            }
+        }
+        return List.of(results);
     }
 
+    /**
+     * Решение по брони - один условный UPDATE (id, статус WAITING, владелец вещи). Если строка не
+     * обновилась, гонку выиграл другой запрос: отвечаем 409, а 404/403 различаем уже после.
+     * Подтверждение дополнительно блокирует строку вещи (SELECT id ... FOR UPDATE, без загрузки вещи), чтобы
+     * проверка пересечения в том же UPDATE не пропустила параллельное подтверждение. Блокируется только вещь
+     * самого userId: чужой запрос не встаёт в очередь к владельцу. Подтверждения одной вещи идут по очереди,
+     * разных вещей - параллельно. На PostgreSQL то же гарантирует ограничение bookings_no_overlap.
+     */
     @Override
+    @Transactional
     public BookingResponseDto approve(Long userId, Long bookingId, boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
+        int updated;
+        if (approved) {
+            if (itemRepository.lockByBookingId(bookingId, userId).isEmpty()) {
+                throw lostUpdate(userId, bookingId);
+            }
+            updated = withoutOverlapViolation(() -> bookingRepository.approveIfWaiting(bookingId, userId));
+        } else {
+            updated = bookingRepository.rejectIfWaiting(bookingId, userId);
+        }
+        if (updated == 0) {
+            throw lostUpdate(userId, bookingId);
+        }
+        BookingResponseDto decided = bookingRepository.findViewById(bookingId)
                 .orElseThrow(() -> new NoSuchElementException("Booking not found"));
+        itemDetailCache.evict(decided.getItem().getId());
+        return decided;
+    }
 
-        Long ownerId = booking.getItem().getOwner().getId();
-        if (!ownerId.equals(userId)) {
-            throw new SecurityException("Only owner can approve");
+    /**
+     * Массовое решение владельца. Вещи (при подтверждении) и брони блокируются двумя запросами
+     * в том же порядке, что и в approve, затем все проверки выполняются в памяти, а статус меняется
+     * одним UPDATE ... WHERE id IN (...) с теми же условиями на статус и владельца.
+     * Пересекающиеся брони внутри пакета подтверждаются в порядке начала, остальные получают CONFLICT.
+     */
+    @Override
+    @Transactional
+    public List<BookingDecisionDto> decideAll(Long userId, List<Long> bookingIds, boolean approved) {
+        checkBatchSize(bookingIds);
+        List<Long> ids = bookingIds.stream().distinct().toList();
+        if (approved) {
+            itemRepository.lockAllByBookingIdIn(ids, userId);
         }
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdInForUpdate(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        Map<Long, BookingDecisionDto> results = new HashMap<>();
+        List<Booking> candidates = new ArrayList<>();
+        for (Long id : ids) {
+            Booking booking = bookings.get(id);
+            if (booking == null) {
+                results.put(id, BookingDecisionDto.failed(id, Outcome.NOT_FOUND, "Booking not found"));
+            } else if (!booking.getItem().getOwner().getId().equals(userId)) {
+                results.put(id, BookingDecisionDto.failed(id, Outcome.FORBIDDEN, "Only owner can approve"));
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                results.put(id, BookingDecisionDto.failed(id, Outcome.CONFLICT,
+                        "Бронирование уже рассмотрено: " + booking.getStatus()));
+            } else {
+                candidates.add(booking);
+            }
+        }
+        if (approved) {
+            candidates = withoutOverlaps(candidates, results);
+        }
+
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (!candidates.isEmpty()) {
+            List<Long> decidedIds = candidates.stream().map(Booking::getId).toList();
+            int updated = withoutOverlapViolation(
+                    () -> bookingRepository.decideAllIfWaiting(decidedIds, userId, status));
+            if (updated != decidedIds.size()) {
+                // строки заблокированы выше, расхождение - нарушенный инвариант: откатываем весь пакет
+                throw new BookingConflictException("Решение применено не ко всем бронированиям: "
+                        + updated + " из " + decidedIds.size());
+            }
+            itemDetailCache.evictAll(candidates.stream().map(booking -> booking.getItem().getId()).distinct().toList());
+        }
+        for (Booking booking : candidates) {
+            results.put(booking.getId(),
+                    BookingDecisionDto.decided(BookingMapper.toDto(booking).toBuilder().status(status).build()));
+        }
+        return ids.stream().map(results::get).toList();
     }
 
     @Override
@@ -68,16 +214,14 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponseDto> getAllByBooker(Long userId, String state) {
-        return filterStateByBooker(userId, state)
-                .stream().map(BookingMapper::toDto).toList();
+    public List<BookingResponseDto> getAllByBooker(Long userId, String state, PageParams page) {
+        return findView(BookingFilter.byBooker(userId, state, LocalDateTime.now()), page);
     }
 
     @Override
-    public List<BookingResponseDto> getAllByOwner(Long ownerId, String state) {
+    public List<BookingResponseDto> getAllByOwner(Long ownerId, String state, PageParams page) {
         userRepository.findById(ownerId).orElseThrow(() -> new NoSuchElementException("Owner Not Found"));
-        return filterStateByOwner(ownerId, state)
-                .stream().map(BookingMapper::toDto).toList();
+        return findView(BookingFilter.byOwner(ownerId, state, LocalDateTime.now()), page);
     }
 
     public Optional<Booking> getLastBooking(Long itemId, LocalDateTime localDateTime) {
@@ -92,34 +236,85 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository.existsByBooker_IdAndItemIdAndEndBeforeAndStatus(bookerId, itemId, before, status);
     }
 
-    private List<Booking> filterStateByBooker(Long userId, String state) {
-        LocalDateTime now = LocalDateTime.now();
-        return switch (state.toUpperCase()) {
-            case "CURRENT" ->
-                    bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, now, now);
-            case "PAST" -> bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(userId, now);
-            case "FUTURE" -> bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, now);
-            case "WAITING" -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
-            case "REJECTED" ->
-                    bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
-            case "ALL" -> bookingRepository.findByBookerIdOrderByStartDesc(userId);
-            default -> throw new ValidationException("Unknown state");
-        };
-    }
-
-    private List<Booking> filterStateByOwner(Long userId, String state) {
-        LocalDateTime now = LocalDateTime.now();
-        return switch (state.toUpperCase()) {
-            case "CURRENT" ->
-                    bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, now, now);
-            case "PAST" -> bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now);
-            case "FUTURE" -> bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now);
-            case "WAITING" ->
-                    bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
-            case "REJECTED" ->
-                    bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
-            case "ALL" -> bookingRepository.findByItemOwnerIdOrderByStartDesc(userId);
-            default -> throw new ValidationException("Unknown state");
-        };
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllByOwner(Long ownerId, String state, Consumer<BookingResponseDto> sink) {
+        userRepository.findById(ownerId).orElseThrow(() -> new NoSuchElementException("Owner Not Found"));
+        try (Stream<BookingResponseDto> bookings =
+                     bookingRepository.streamView(BookingFilter.byOwner(ownerId, state, LocalDateTime.now()))) {
+            bookings.forEach(sink);
+        }
+    }
+
+    private List<Booking> withoutOverlaps(List<Booking> candidates, Map<Long, BookingDecisionDto> results) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        LocalDateTime from = candidates.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = candidates.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        List<BookingSlot> taken = new ArrayList<>(bookingRepository.findApprovedSlots(
+                candidates.stream().map(b -> b.getItem().getId()).collect(Collectors.toSet()), from, to));
+
+        List<Booking> accepted = new ArrayList<>();
+        candidates.stream()
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId))
+                .forEach(booking -> {
+                    BookingSlot slot = new BookingSlot(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+                    if (taken.stream().anyMatch(slot::overlaps)) {
+                        results.put(booking.getId(), BookingDecisionDto.failed(booking.getId(), Outcome.CONFLICT,
+                                "Вещь уже забронирована на эти даты"));
+                    } else {
+                        taken.add(slot);
+                        accepted.add(booking);
+                    }
+                });
+        return accepted;
+    }
+
+    private RuntimeException lostUpdate(Long userId, Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            return new NoSuchElementException("Booking not found");
+        }
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            return new SecurityException("Only owner can approve");
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            return new BookingConflictException("Бронирование уже рассмотрено: " + booking.getStatus());
+        }
+        return new BookingConflictException("Вещь уже забронирована на эти даты");
+    }
+
+    private static void checkBatchSize(List<?> batch) {
+        if (batch == null || batch.isEmpty()) {
+            throw new ValidationException("Список бронирований пуст");
+        }
+        if (batch.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Не больше " + MAX_BATCH_SIZE + " бронирований за запрос");
+        }
+    }
+
+    /**
+     * Пересечение, которое проверки сервиса пропустили, а поймало ограничение bookings_no_overlap, -
+     * тот же конфликт, что и найденный проверкой: 409, а не 500.
+     */
+    private static int withoutOverlapViolation(IntSupplier update) {
+        try {
+            return update.getAsInt();
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapConstraint(e)) {
+                throw new BookingConflictException("Вещь уже забронирована на эти даты");
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isOverlapConstraint(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Booking.NO_OVERLAP_CONSTRAINT);
+    }
+
+    private List<BookingResponseDto> findView(BookingFilter filter, PageParams page) {
+        return bookingRepository.findView(filter, page.afterTime(), page.afterId(), page.pageable());
     }
 }
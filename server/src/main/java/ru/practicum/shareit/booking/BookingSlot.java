@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Период занятости вещи: JPQL-проекция подтверждённых бронирований для проверки пересечений.
+ */
+public record BookingSlot(Long itemId, LocalDateTime start, LocalDateTime end) {
+
+    public boolean overlaps(BookingSlot other) {
+        return itemId.equals(other.itemId) && start.isBefore(other.end) && end.isAfter(other.start);
+    }
+}
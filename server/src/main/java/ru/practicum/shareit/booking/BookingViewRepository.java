@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface BookingViewRepository {
+
+    List<BookingResponseDto> findView(BookingFilter filter, LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    Stream<BookingResponseDto> streamView(BookingFilter filter);
+
+    Optional<BookingResponseDto> findViewById(Long bookingId);
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.streaming.Streaming;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Списки бронирований одним запросом на все состояния. В WHERE попадают только заданные
+ * условия фильтра, поэтому для каждого состояния план строится по составным индексам
+ * bookings (booker_id, start_date, id) и items (owner_id) + bookings (item_id, status, start_date).
+ */
+public class BookingViewRepositoryImpl implements BookingViewRepository {
+    private final EntityManager entityManager;
+
+    public BookingViewRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<BookingResponseDto> findView(BookingFilter filter, LocalDateTime afterStart, Long afterId,
+                                             Pageable pageable) {
+        return query(filter, afterStart, afterId)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public Stream<BookingResponseDto> streamView(BookingFilter filter) {
+        return query(filter, null, null)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Streaming.CHUNK_SIZE)
+                .getResultStream();
+    }
+
+    @Override
+    public Optional<BookingResponseDto> findViewById(Long bookingId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingResponseDto> cq = cb.createQuery(BookingResponseDto.class);
+        Root<Booking> booking = cq.from(Booking.class);
+        select(cb, cq, booking);
+        cq.where(cb.equal(booking.get("id"), bookingId));
+        return entityManager.createQuery(cq).getResultStream().findFirst();
+    }
+
+    private TypedQuery<BookingResponseDto> query(BookingFilter filter, LocalDateTime afterStart, Long afterId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingResponseDto> cq = cb.createQuery(BookingResponseDto.class);
+        Root<Booking> booking = cq.from(Booking.class);
+        Join<Booking, Item> item = select(cb, cq, booking);
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter.bookerId() != null) {
+            where.add(cb.equal(booking.get("booker").get("id"), filter.bookerId()));
+        }
+        if (filter.ownerId() != null) {
+            where.add(cb.equal(item.get("owner").get("id"), filter.ownerId()));
+        }
+        if (filter.status() != null) {
+            where.add(cb.equal(booking.get("status"), filter.status()));
+        }
+        if (filter.startBefore() != null) {
+            where.add(cb.lessThan(start, filter.startBefore()));
+        }
+        if (filter.startAfter() != null) {
+            where.add(cb.greaterThan(start, filter.startAfter()));
+        }
+        if (filter.endBefore() != null) {
+            where.add(cb.lessThan(end, filter.endBefore()));
+        }
+        if (filter.endAfter() != null) {
+            where.add(cb.greaterThan(end, filter.endAfter()));
+        }
+        if (afterStart != null) {
+            where.add(cb.or(cb.lessThan(start, afterStart),
+                    cb.and(cb.equal(start, afterStart), cb.lessThan(id, afterId))));
+        }
+
+        cq.where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return entityManager.createQuery(cq);
+    }
+
+    private Join<Booking, Item> select(CriteriaBuilder cb, CriteriaQuery<BookingResponseDto> cq,
+                                       Root<Booking> booking) {
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        cq.select(cb.construct(BookingResponseDto.class, booking.get("id"), booking.get("start"),
+                booking.get("end"), booking.get("status"), item.get("id"), item.get("name"),
+                booker.get("id"), booker.get("name")));
+        return item;
+    }
+}
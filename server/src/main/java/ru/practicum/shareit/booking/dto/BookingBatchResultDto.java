@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат пакетного бронирования по одной позиции в порядке запроса. При CREATED заполнено booking,
+ * иначе - error с тем же текстом, что вернул бы одиночный POST /bookings.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchResultDto {
+    private Long itemId;
+    private Outcome outcome;
+    private BookingResponseDto booking;
+    private String error;
+
+    public enum Outcome {
+        CREATED, NOT_FOUND, UNAVAILABLE
+    }
+
+    public static BookingBatchResultDto created(BookingResponseDto booking) {
+        return new BookingBatchResultDto(booking.getItem().getId(), Outcome.CREATED, booking, null);
+    }
+
+    public static BookingBatchResultDto failed(Long itemId, Outcome outcome, String error) {
+        return new BookingBatchResultDto(itemId, outcome, null, error);
+    }
+}
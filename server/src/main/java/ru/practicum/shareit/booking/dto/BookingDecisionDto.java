@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат массового подтверждения по одной брони. При DECIDED заполнено booking,
+ * иначе - error с тем же текстом, что вернул бы одиночный PATCH /bookings/{id}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionDto {
+    private Long bookingId;
+    private Outcome outcome;
+    private BookingResponseDto booking;
+    private String error;
+
+    public enum Outcome {
+        DECIDED, NOT_FOUND, FORBIDDEN, CONFLICT
+    }
+
+    public static BookingDecisionDto decided(BookingResponseDto booking) {
+        return new BookingDecisionDto(booking.getId(), Outcome.DECIDED, booking, null);
+    }
+
+    public static BookingDecisionDto failed(Long bookingId, Outcome outcome, String error) {
+        return new BookingDecisionDto(bookingId, outcome, null, error);
+    }
+}
@@ -1,20 +1,31 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 
 @Data
 @Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class BookingResponseDto {
     private Long id;
-    private Item item;
-    private User booker;
+    private ItemShortDto item;
+    private UserShortDto booker;
     private LocalDateTime start;
     private LocalDateTime end;
     private BookingStatus status;
+
+    /**
+     * Конструктор для JPQL-проекции списков: строка собирается из колонок запроса,
+     * без загрузки сущностей Booking, Item и User.
+     */
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                              Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, new ItemShortDto(itemId, itemName), new UserShortDto(bookerId, bookerName), start, end, status);
+    }
 }
@@ -0,0 +1,186 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Шина сброса локальных кэшей между узлами сервера через PostgreSQL LISTEN/NOTIFY, без отдельного брокера.
+ * publish сбрасывает кэш своего узла сразу и ещё раз по завершении транзакции и отправляет pg_notify
+ * в текущей транзакции: PostgreSQL доставляет уведомление только после коммита, откат его отменяет.
+ * NOTIFY уходит для любого события, даже если на своём узле подписчиков этого типа нет.
+ * Каждый узел держит одно соединение с LISTEN и опрашивает его не реже раза в poll-timeout.
+ * Задержка от publish до сброса на другом узле пишется в таймер cache.invalidation.lag
+ * (по часам узлов); при потере соединения после переподключения сбрасываются все кэши,
+ * а пока соединения нет, устаревание ограничено TTL самих кэшей.
+ * На других БД (H2 в тестах) шина работает только в пределах узла.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+    public static final String CHANNEL = "shareit_cache_invalidation";
+    static final int IDS_PER_NOTIFY = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final Duration pollTimeout;
+    private final String node = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<InvalidationEvent.Type, List<InvalidationListener>> listeners =
+            new EnumMap<>(InvalidationEvent.Type.class);
+    private final Timer lag;
+    private final Counter received;
+    private volatile boolean postgres;
+    private volatile boolean listening;
+    private volatile Thread listenerThread;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate, DataSource dataSource, MeterRegistry meterRegistry,
+                                @Value("${shareit.cache.invalidation.poll-timeout:PT0.5S}") Duration pollTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.pollTimeout = pollTimeout;
+        for (InvalidationEvent.Type type : InvalidationEvent.Type.values()) {
+            listeners.put(type, new CopyOnWriteArrayList<>());
+        }
+        this.lag = Timer.builder("cache.invalidation.lag")
+                .description("Время от публикации изменения до сброса кэша на другом узле")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.received").register(meterRegistry);
+        Gauge.builder("cache.invalidation.listening", this, bus -> bus.listening ? 1 : 0).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        postgres = Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) con -> con.isWrapperFor(PGConnection.class)));
+        if (!postgres) {
+            log.info("Cache invalidation is node-local: database does not support LISTEN/NOTIFY");
+            return;
+        }
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = listenerThread;
+        listenerThread = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    public void subscribe(InvalidationEvent.Type type, InvalidationListener listener) {
+        listeners.get(type).add(listener);
+    }
+
+    public void publish(InvalidationEvent.Type type, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> copy = List.copyOf(ids);
+        List<InvalidationListener> subscribers = listeners.get(type);
+        subscribers.forEach(listener -> listener.evict(copy));
+        if (!subscribers.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    subscribers.forEach(listener -> listener.evict(copy));
+                }
+            });
+        }
+        if (postgres) {
+            for (int from = 0; from < copy.size(); from += IDS_PER_NOTIFY) {
+                InvalidationEvent event = InvalidationEvent.of(type,
+                        copy.subList(from, Math.min(from + IDS_PER_NOTIFY, copy.size())), node);
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, event.encode());
+            }
+        }
+    }
+
+    /**
+     * Событие другого узла: сброс локальных кэшей. События своего узла пропускаются,
+     * их подписчики получили ещё в publish.
+     */
+    public void dispatch(InvalidationEvent event) {
+        if (event.node().equals(node)) {
+            return;
+        }
+        received.increment();
+        listeners.get(event.type()).forEach(listener -> listener.evict(event.ids()));
+        lag.record(Math.max(0, System.currentTimeMillis() - event.publishedAt()), TimeUnit.MILLISECONDS);
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (listenerThread != null) {
+            try (Connection con = dataSource.getConnection()) {
+                try (Statement st = con.createStatement()) {
+                    st.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) {
+                    listeners.values().forEach(list -> list.forEach(InvalidationListener::evictAll));
+                }
+                listening = true;
+                PGConnection pg = con.unwrap(PGConnection.class);
+                while (listenerThread != null) {
+                    PGNotification[] notifications = pg.getNotifications((int) pollTimeout.toMillis());
+                    for (PGNotification notification : notifications == null ? new PGNotification[0] : notifications) {
+                        try {
+                            dispatch(InvalidationEvent.decode(notification.getParameter()));
+                        } catch (IllegalArgumentException e) {
+                            log.warn("Skipping cache invalidation event: {}", e.getMessage());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (listenerThread == null) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, reconnecting: {}", e.getMessage());
+                sleep();
+            } finally {
+                listening = false;
+                reconnect = true;
+            }
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollTimeout.toMillis() * 4);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public String node() {
+        return node;
+    }
+}
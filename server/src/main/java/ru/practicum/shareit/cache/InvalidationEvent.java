@@ -0,0 +1,37 @@
+package ru.practicum.shareit.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Изменение сущностей для сброса кэшей на всех узлах. В NOTIFY передаётся компактной строкой
+ * "ITEM|1,2,3|node|publishedAtMillis", payload PostgreSQL ограничен 8000 байт.
+ */
+public record InvalidationEvent(Type type, List<Long> ids, String node, long publishedAt) {
+
+    public enum Type {
+        ITEM, USER
+    }
+
+    public String encode() {
+        return type + "|" + ids.stream().map(String::valueOf).collect(Collectors.joining(",")) + "|" + node + "|"
+                + publishedAt;
+    }
+
+    public static InvalidationEvent decode(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Некорректное событие сброса кэша: " + payload);
+        }
+        List<Long> ids = parts[1].isEmpty() ? List.of() : Arrays.stream(parts[1].split(","))
+                .map(Long::valueOf)
+                .toList();
+        return new InvalidationEvent(Type.valueOf(parts[0]), ids, parts[2], Long.parseLong(parts[3]));
+    }
+
+    static InvalidationEvent of(Type type, Collection<Long> ids, String node) {
+        return new InvalidationEvent(type, List.copyOf(ids), node, System.currentTimeMillis());
+    }
+}
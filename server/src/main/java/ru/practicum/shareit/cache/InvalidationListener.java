@@ -0,0 +1,16 @@
+package ru.practicum.shareit.cache;
+
+import java.util.Collection;
+
+/**
+ * Подписчик шины сброса: локальный кэш одного типа сущностей.
+ */
+public interface InvalidationListener {
+
+    void evict(Collection<Long> ids);
+
+    /**
+     * Сброс всего кэша, когда часть событий могла быть потеряна (переподключение LISTEN).
+     */
+    void evictAll();
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.util.Collection;
+
+/**
+ * Второй уровень кэша Hibernate у каждого узла свой: изменения User и Item с других узлов
+ * приходят через {@link CacheInvalidationBus} и вытесняют записи сущностей. Изменение пользователя
+ * сбрасывает и кэш запросов (existsByEmail), иначе другой узел пропустит занятый e-mail.
+ */
+@Component
+public class SecondLevelCacheInvalidation {
+
+    public SecondLevelCacheInvalidation(EntityManagerFactory entityManagerFactory, CacheInvalidationBus bus) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        bus.subscribe(InvalidationEvent.Type.ITEM, new InvalidationListener() {
+            @Override
+            public void evict(Collection<Long> ids) {
+                ids.forEach(id -> cache.evictEntityData(Item.class, id));
+            }
+
+            @Override
+            public void evictAll() {
+                cache.evictEntityData(Item.class);
+            }
+        });
+        bus.subscribe(InvalidationEvent.Type.USER, new InvalidationListener() {
+            @Override
+            public void evict(Collection<Long> ids) {
+                ids.forEach(id -> cache.evictEntityData(User.class, id));
+                cache.evictDefaultQueryRegion();
+            }
+
+            @Override
+            public void evictAll() {
+                cache.evictEntityData(User.class);
+                cache.evictDefaultQueryRegion();
+            }
+        });
+    }
+}
@@ -1,9 +1,15 @@
 package ru.practicum.shareit.comment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItemIdOrderByCreatedDesc(Long itemId);
-}
\ No newline at end of file
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id IN :itemIds ORDER BY c.created DESC")
+    List<Comment> findWithAuthorByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сохранённый ответ на запрос с заголовком Idempotency-Key. Ключ записи - операция,
+ * пользователь и ключ клиента; fingerprint - SHA-256 тела исходного запроса.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created", columnList = "created"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+    @Id
+    private String id;
+    private String fingerprint;
+    private String response;
+    private LocalDateTime created;
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.created < :before")
+    int deleteExpired(@Param("id") String id, @Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.created < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.idempotency;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * Выполняет action один раз на ключ: повтор с тем же ключом и телом запроса возвращает
+     * сохранённый ответ, не вызывая action. Без ключа action выполняется как обычно.
+     */
+    <T> T execute(String operation, Long userId, String key, Object request, Class<T> responseType,
+                  Supplier<T> action);
+}
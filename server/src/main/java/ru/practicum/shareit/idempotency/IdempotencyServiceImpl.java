@@ -0,0 +1,156 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.IdempotencyKeyConflictException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Ответ сохраняется в idempotency_keys в одной транзакции с самой операцией, поэтому
+ * ключ без результата (или результат без ключа) не остаётся. Параллельный дубль упирается
+ * в первичный ключ, откатывается и отдаёт ответ победителя. Перед таблицей - LRU последних ключей.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Map<String, IdempotencyRecord> recent;
+
+    @Autowired
+    public IdempotencyServiceImpl(IdempotencyRepository repository, TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${shareit.idempotency.ttl:PT24H}") Duration ttl,
+                                  @Value("${shareit.idempotency.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public <T> T execute(String operation, Long userId, String key, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException(HEADER + " должен содержать от 1 до " + MAX_KEY_LENGTH + " символов");
+        }
+        String id = operation + ':' + userId + ':' + key;
+        String fingerprint = fingerprint(request);
+        Optional<T> stored = replay(id, fingerprint, responseType);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        try {
+            IdempotencyRecord saved = transactionTemplate.execute(status -> {
+                T result = action.get();
+                LocalDateTime now = LocalDateTime.now();
+                repository.deleteExpired(id, now.minus(ttl));
+                return repository.saveAndFlush(IdempotencyRecord.builder()
+                        .id(id)
+                        .fingerprint(fingerprint)
+                        .response(write(result))
+                        .created(now)
+                        .build());
+            });
+            remember(saved);
+            return read(saved, responseType);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Idempotency key {} was stored concurrently", id);
+            return replay(id, fingerprint, responseType).orElseThrow(() -> e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.cleanup-interval:PT10M}")
+    @Transactional
+    public void deleteExpired() {
+        LocalDateTime before = LocalDateTime.now().minus(ttl);
+        int deleted = repository.deleteCreatedBefore(before);
+        synchronized (recent) {
+            recent.values().removeIf(record -> record.getCreated().isBefore(before));
+        }
+        log.debug("Deleted {} expired idempotency keys", deleted);
+    }
+
+    private <T> Optional<T> replay(String id, String fingerprint, Class<T> responseType) {
+        IdempotencyRecord record;
+        synchronized (recent) {
+            record = recent.get(id);
+        }
+        if (record == null) {
+            record = repository.findById(id).orElse(null);
+            if (record == null) {
+                return Optional.empty();
+            }
+            remember(record);
+        }
+        if (record.getCreated().isBefore(LocalDateTime.now().minus(ttl))) {
+            return Optional.empty();
+        }
+        if (!record.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyConflictException(HEADER + " уже использован с другим телом запроса");
+        }
+        return Optional.of(read(record, responseType));
+    }
+
+    private void remember(IdempotencyRecord record) {
+        synchronized (recent) {
+            recent.put(record.getId(), record);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(hash);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T read(IdempotencyRecord record, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(record.getResponse(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,27 +1,64 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.CommentDto;
+import ru.practicum.shareit.idempotency.IdempotencyService;
+import ru.practicum.shareit.item.bulk.ItemImportService;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.streaming.NdjsonWriter;
+import ru.practicum.shareit.streaming.Streaming;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
 @RequestMapping("/items")
 public class ItemController {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final String OWNER_HEADER = "X-Item-Owner-Id";
+
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ItemImportService itemImportService,
+                          IdempotencyService idempotencyService, ObjectMapper objectMapper) {
         this.itemService = itemService;
+        this.itemImportService = itemImportService;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemDto create(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
+                          @RequestHeader(value = IdempotencyService.HEADER, required = false) String key,
                           @RequestBody ItemDto itemDto) {
-        return itemService.create(userId, itemDto);
+        return idempotencyService.execute("POST /items", userId, key, itemDto, ItemDto.class,
+                () -> itemService.create(userId, itemDto));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ItemImportReportDto importJson(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                          InputStream body) throws IOException {
+        return itemImportService.importJson(userId, body);
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ItemImportReportDto importCsv(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                         InputStream body) throws IOException {
+        return itemImportService.importCsv(userId, body);
     }
 
     @PatchMapping("/{itemId}")
@@ -31,20 +68,42 @@ public class ItemController {
         return itemService.update(userId, itemId, itemDto);
     }
 
+    /**
+     * Id владельца уходит в заголовке X-Item-Owner-Id: по нему шлюз объединяет одинаковые запросы
+     * остальных пользователей, для которых карточка от пользователя не зависит.
+     */
     @GetMapping("/{itemId}")
     public ItemDto getById(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
-                           @PathVariable("itemId") Long itemId) {
-        return itemService.getById(userId, itemId);
+                           @PathVariable("itemId") Long itemId,
+                           HttpServletResponse response) {
+        ItemDetailCache.Entry details = itemService.getDetails(userId, itemId);
+        response.setHeader(OWNER_HEADER, String.valueOf(details.ownerId()));
+        return details.item();
     }
 
     @GetMapping
-    public List<ItemDto> getAll(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId) {
-        return itemService.getAllByOwner(userId);
+    public List<ItemDto> getAll(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
+                                @RequestParam(defaultValue = "0") int from,
+                                @RequestParam(defaultValue = "10") int size) {
+        return itemService.getAllByOwner(userId, PageParams.of(from, size));
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        return itemService.search(text);
+    public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(defaultValue = "0") int from,
+                                @RequestParam(defaultValue = "10") int size) {
+        return itemService.search(text, PageParams.of(from, size));
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamSearch(@RequestParam String text,
+                             @RequestParam(required = false) Integer from,
+                             @RequestParam(required = false) Integer size,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        NdjsonWriter<ItemDto> writer = NdjsonWriter.open(objectMapper, request, response);
+        Streaming.rejectPaging(from, size);
+        itemService.streamSearch(text, writer);
+        writer.flush();
     }
 
     @PostMapping("/{itemId}/comment")
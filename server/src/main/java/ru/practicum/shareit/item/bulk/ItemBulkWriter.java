@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.bulk;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Запись пачки вещей в обход persistence context. На PostgreSQL - COPY FROM STDIN,
+ * на остальных БД (H2 в тестах) - многострочные INSERT. Id берутся из генератора сущности Item
+ * (items_seq, pooled), поэтому не пересекаются с id, которые Hibernate выдаёт параллельно.
+ */
+@Component
+public class ItemBulkWriter {
+    private static final String COLUMNS = "items (id, name, description, available, owner_id, request_id)";
+    private static final String COPY = "COPY " + COLUMNS + " FROM STDIN WITH (FORMAT csv)";
+    private static final int ROWS_PER_INSERT = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public ItemBulkWriter(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    public void write(Long ownerId, List<ItemDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Long> ids = nextIds(items.size());
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            if (con.isWrapperFor(PGConnection.class)) {
+                copy(con.unwrap(PGConnection.class), ownerId, items, ids);
+            } else {
+                insert(con, ownerId, items, ids);
+            }
+            return null;
+        });
+    }
+
+    private List<Long> nextIds(int count) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Item.class).getGenerator();
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add((Long) generator.generate(session, null, null, EventType.INSERT));
+        }
+        return ids;
+    }
+
+    private void copy(PGConnection con, Long ownerId, List<ItemDto> items, List<Long> ids) throws SQLException {
+        StringBuilder csv = new StringBuilder(items.size() * 64);
+        for (int i = 0; i < items.size(); i++) {
+            ItemDto item = items.get(i);
+            csv.append(ids.get(i)).append(',')
+                    .append(quote(item.getName())).append(',')
+                    .append(quote(item.getDescription())).append(',')
+                    .append(item.getAvailable()).append(',')
+                    .append(ownerId).append(',')
+                    .append(item.getRequestId() == null ? "" : item.getRequestId())
+                    .append('\n');
+        }
+        try {
+            con.getCopyAPI().copyIn(COPY, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void insert(Connection con, Long ownerId, List<ItemDto> items, List<Long> ids) throws SQLException {
+        for (int from = 0; from < items.size(); from += ROWS_PER_INSERT) {
+            int to = Math.min(from + ROWS_PER_INSERT, items.size());
+            String sql = "INSERT INTO " + COLUMNS + " VALUES " + String.join(", ",
+                    Collections.nCopies(to - from, "(?, ?, ?, ?, ?, ?)"));
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                int p = 1;
+                for (int i = from; i < to; i++) {
+                    ItemDto item = items.get(i);
+                    ps.setLong(p++, ids.get(i));
+                    ps.setString(p++, item.getName());
+                    ps.setString(p++, item.getDescription());
+                    ps.setBoolean(p++, item.getAvailable());
+                    ps.setLong(p++, ownerId);
+                    if (item.getRequestId() == null) {
+                        ps.setNull(p++, Types.BIGINT);
+                    } else {
+                        ps.setLong(p++, item.getRequestId());
+                    }
+                }
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
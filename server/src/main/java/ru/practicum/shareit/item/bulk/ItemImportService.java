@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.bulk;
+
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ItemImportService {
+
+    ItemImportReportDto importJson(Long ownerId, InputStream body) throws IOException;
+
+    ItemImportReportDto importCsv(Long ownerId, InputStream body) throws IOException;
+}
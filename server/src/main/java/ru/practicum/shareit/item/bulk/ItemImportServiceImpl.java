@@ -0,0 +1,255 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт каталога владельца. Тело читается потоково, каждая строка проверяется сразу,
+ * корректные строки копятся порциями по {@link #CHUNK_SIZE} и пишутся {@link ItemBulkWriter}.
+ * Некорректные строки не прерывают импорт и попадают в отчёт; синтаксическая ошибка
+ * всего документа - 400 и откат уже записанных порций. В отчёт попадают {@link #MAX_REPORTED_ERRORS}
+ * ошибок с наименьшими номерами строк, в том числе найденные только при записи порции (неизвестный requestId).
+ */
+@Service
+public class ItemImportServiceImpl implements ItemImportService {
+    static final int CHUNK_SIZE = 1_000;
+    static final int MAX_REPORTED_ERRORS = 100;
+    // items.name VARCHAR(255): длинное имя сорвало бы COPY всей порции, поэтому отсекается построчно
+    static final int MAX_NAME_LENGTH = 255;
+    private static final List<String> CSV_REQUIRED = List.of("name", "description", "available");
+
+    private final UserRepository userRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ItemBulkWriter writer;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ItemImportServiceImpl(UserRepository userRepository, ItemRequestRepository requestRepository,
+                                 ItemBulkWriter writer, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.requestRepository = requestRepository;
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional
+    public ItemImportReportDto importJson(Long ownerId, InputStream body) throws IOException {
+        ImportRun run = start(ownerId);
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Ожидается JSON-массив вещей");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new ValidationException("Элемент массива должен быть объектом: " + parser.getText());
+                }
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    run.accept(objectMapper.treeToValue(node, ItemDto.class));
+                } catch (JsonProcessingException e) {
+                    run.reject(e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+        return run.finish();
+    }
+
+    @Override
+    @Transactional
+    public ItemImportReportDto importCsv(Long ownerId, InputStream body) throws IOException {
+        ImportRun run = start(ownerId);
+        CsvRowReader reader = new CsvRowReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new ValidationException("Пустой CSV: нет заголовка");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).strip().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : CSV_REQUIRED) {
+            if (!columns.containsKey(column)) {
+                throw new ValidationException("В заголовке CSV нет колонки " + column);
+            }
+        }
+        Integer requestColumn = columns.get("requestid");
+        List<String> row;
+        while ((row = reader.next()) != null) {
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                run.accept(ItemDto.builder()
+                        .name(field(row, columns.get("name")))
+                        .description(field(row, columns.get("description")))
+                        .available(parseBoolean(field(row, columns.get("available"))))
+                        .requestId(parseLong(requestColumn == null ? null : field(row, requestColumn)))
+                        .build());
+            } catch (IllegalArgumentException e) {
+                run.reject(e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    private ImportRun start(Long ownerId) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new NoSuchElementException("User not found");
+        }
+        return new ImportRun(ownerId);
+    }
+
+    private static String validate(ItemDto dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            return "name: must not be blank";
+        }
+        if (dto.getName().length() > MAX_NAME_LENGTH) {
+            return "name: length must not exceed " + MAX_NAME_LENGTH;
+        }
+        if (dto.getDescription() == null || dto.getDescription().isBlank()) {
+            return "description: must not be blank";
+        }
+        if (dto.getAvailable() == null) {
+            return "available: must not be null";
+        }
+        return null;
+    }
+
+    private static String field(List<String> row, int index) {
+        return index < row.size() ? row.get(index) : null;
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return switch (value.strip().toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException("available: expected true or false, got " + value);
+        };
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("requestId: not a number: " + value);
+        }
+    }
+
+    private record Row(long number, ItemDto item) {
+    }
+
+    private class ImportRun {
+        private final Long ownerId;
+        private final List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        // куча с наибольшим номером строки наверху: при переполнении вытесняется самая поздняя ошибка
+        private final PriorityQueue<ItemImportReportDto.RowError> errors = new PriorityQueue<>(
+                Comparator.comparingLong(ItemImportReportDto.RowError::getRow).reversed());
+        private long received;
+        private long imported;
+        private long rejected;
+
+        ImportRun(Long ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        void accept(ItemDto dto) {
+            received++;
+            String error = validate(dto);
+            if (error != null) {
+                reject(received, error);
+                return;
+            }
+            chunk.add(new Row(received, dto));
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(String error) {
+            received++;
+            reject(received, error);
+        }
+
+        private void reject(long row, String error) {
+            rejected++;
+            errors.add(new ItemImportReportDto.RowError(row, error));
+            if (errors.size() > MAX_REPORTED_ERRORS) {
+                errors.poll();
+            }
+        }
+
+        private void flush() {
+            Set<Long> requestIds = chunk.stream()
+                    .map(row -> row.item().getRequestId())
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Set<Long> known = requestIds.isEmpty() ? Set.of() : requestRepository.findAllById(requestIds).stream()
+                    .map(ItemRequest::getId)
+                    .collect(Collectors.toSet());
+            List<ItemDto> valid = new ArrayList<>(chunk.size());
+            for (Row row : chunk) {
+                Long requestId = row.item().getRequestId();
+                if (requestId != null && !known.contains(requestId)) {
+                    reject(row.number(), "requestId: request not found: " + requestId);
+                } else {
+                    valid.add(row.item());
+                }
+            }
+            writer.write(ownerId, valid);
+            imported += valid.size();
+            chunk.clear();
+        }
+
+        ItemImportReportDto finish() {
+            if (!chunk.isEmpty()) {
+                flush();
+            }
+            return ItemImportReportDto.builder()
+                    .received(received)
+                    .imported(imported)
+                    .rejected(rejected)
+                    .errors(errors.stream()
+                            .sorted(Comparator.comparingLong(ItemImportReportDto.RowError::getRow))
+                            .toList())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.InvalidationEvent;
+import ru.practicum.shareit.cache.InvalidationListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Кэш карточек GET /items/{id}. Для каждой вещи до двух записей: вид владельца (с ближайшими
+ * бронированиями) и вид остальных пользователей; в обеих хранится id владельца, чтобы выбрать
+ * нужную без обращения к БД. Размер и TTL ограничены, TTL заодно ограничивает устаревание
+ * lastBooking/nextBooking, которые сдвигаются со временем без записей в БД.
+ * Сброс идёт через {@link CacheInvalidationBus}: на своём узле сразу и по завершении транзакции,
+ * на остальных - после коммита. Каждый сброс увеличивает поколение вещи (счётчик на полосу из
+ * GENERATION_STRIPES), и загруженная карточка кладётся в кэш, только если поколение за время загрузки
+ * не изменилось: иначе читатель, прочитавший строку до коммита писателя, вернул бы её в кэш на весь TTL
+ * уже после сброса. Совпадение полосы у разных вещей лишь пропускает запись в кэш.
+ */
+@Component
+public class ItemDetailCache {
+    public static final String NAME = "itemDetails";
+    static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Key, Entry> cache;
+    private final CacheInvalidationBus bus;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public ItemDetailCache(@Value("${shareit.cache.item-details.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.cache.item-details.ttl:PT1M}") Duration ttl,
+                           MeterRegistry meterRegistry, CacheInvalidationBus bus) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", NAME)
+                .register(meterRegistry);
+        this.bus = bus;
+        bus.subscribe(InvalidationEvent.Type.ITEM, new InvalidationListener() {
+            @Override
+            public void evict(Collection<Long> itemIds) {
+                itemIds.forEach(itemId -> generations.incrementAndGet(stripe(itemId)));
+                cache.invalidateAll(keys(itemIds));
+            }
+
+            @Override
+            public void evictAll() {
+                for (int i = 0; i < GENERATION_STRIPES; i++) {
+                    generations.incrementAndGet(i);
+                }
+                cache.invalidateAll();
+            }
+        });
+    }
+
+    /**
+     * Карточка вещи для пользователя userId вместе с id владельца. Если подходящей записи нет, loader
+     * загружает вещь и возвращает вид для этого пользователя.
+     */
+    public Entry get(Long itemId, Long userId, Function<Long, Entry> loader) {
+        Entry owner = cache.getIfPresent(new Key(itemId, true));
+        if (owner != null && owner.ownerId().equals(userId)) {
+            return owner;
+        }
+        Entry other = cache.getIfPresent(new Key(itemId, false));
+        if (other != null && !other.ownerId().equals(userId)) {
+            return other;
+        }
+        long generation = generations.get(stripe(itemId));
+        Entry loaded = loader.apply(itemId);
+        // сброс увеличивает поколение до invalidate того же ключа, а compute с ним не пересекается:
+        // запись либо проверяет уже новое поколение, либо успевает раньше и удаляется сбросом
+        cache.asMap().compute(new Key(itemId, loaded.ownerId().equals(userId)),
+                (key, current) -> generations.get(stripe(itemId)) == generation ? loaded : current);
+        return loaded;
+    }
+
+    public void evict(Long itemId) {
+        evictAll(List.of(itemId));
+    }
+
+    public void evictAll(Collection<Long> itemIds) {
+        bus.publish(InvalidationEvent.Type.ITEM, itemIds);
+    }
+
+    private static int stripe(Long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), GENERATION_STRIPES);
+    }
+
+    private static List<Key> keys(Collection<Long> itemIds) {
+        return itemIds.stream()
+                .flatMap(id -> Stream.of(new Key(id, true), new Key(id, false)))
+                .toList();
+    }
+
+    public record Entry(Long ownerId, ItemDto item) {
+    }
+
+    private record Key(Long itemId, boolean ownerView) {
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Итог импорта каталога: сколько строк пришло, сколько сохранено и отклонено.
+ * В errors - первые отклонённые строки (номер строки данных с 1 и причина).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportReportDto {
+    private long received;
+    private long imported;
+    private long rejected;
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String error;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+public interface OwnerItemView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    LocalDateTime getLastBooking();
+
+    LocalDateTime getNextBooking();
+}
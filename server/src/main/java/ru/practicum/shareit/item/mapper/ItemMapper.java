@@ -3,14 +3,19 @@ package ru.practicum.shareit.item.mapper;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingServiceImpl;
+import ru.practicum.shareit.comment.CommentDto;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.OwnerItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class ItemMapper {
@@ -44,17 +49,38 @@ public class ItemMapper {
 
     public ItemDto toSimpleDto(Item item) {
         if (item == null) return null;
-        return ItemDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .available(item.getAvailable())
-                .lastBooking(null)
-                .nextBooking(null)
-                .comments(commentRepository.findByItemIdOrderByCreatedDesc(item.getId()).stream()
-                        .map(CommentMapper::toDto)
-                        .toList())
-                .build();
+        return toSimpleDto(item, commentRepository.findByItemIdOrderByCreatedDesc(item.getId()).stream()
+                .map(CommentMapper::toDto)
+                .toList());
+    }
+
+    /**
+     * Списочный вариант {@link #toSimpleDto(Item)}: комментарии всей страницы
+     * загружаются одним запросом, а не по запросу на каждую вещь.
+     */
+    public List<ItemDto> toSimpleDtos(List<Item> items) {
+        if (items.isEmpty()) return List.of();
+        Map<Long, List<CommentDto>> comments = commentsByItemId(items.stream().map(Item::getId).toList());
+        return items.stream()
+                .map(item -> toSimpleDto(item, comments.getOrDefault(item.getId(), List.of())))
+                .toList();
+    }
+
+    public List<ItemDto> toOwnerDtos(List<OwnerItemView> views) {
+        if (views.isEmpty()) return List.of();
+        Map<Long, List<CommentDto>> comments = commentsByItemId(views.stream().map(OwnerItemView::getId).toList());
+        return views.stream()
+                .map(view -> ItemDto.builder()
+                        .id(view.getId())
+                        .name(view.getName())
+                        .description(view.getDescription())
+                        .available(view.getAvailable())
+                        .lastBooking(view.getLastBooking())
+                        .nextBooking(view.getNextBooking())
+                        .comments(comments.getOrDefault(view.getId(), List.of()))
+                        .requestId(view.getRequestId())
+                        .build())
+                .toList();
     }
 
     public Item toModel(ItemDto dto, User owner) {
@@ -71,4 +97,22 @@ public class ItemMapper {
         }
         return item;
     }
+
+    private ItemDto toSimpleDto(Item item, List<CommentDto> comments) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .lastBooking(null)
+                .nextBooking(null)
+                .comments(comments)
+                .build();
+    }
+
+    private Map<Long, List<CommentDto>> commentsByItemId(List<Long> itemIds) {
+        return commentRepository.findWithAuthorByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toDto, Collectors.toList())));
+    }
 }
@@ -1,21 +1,104 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.OwnerItemView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.streaming.Streaming;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @EntityGraph(attributePaths = "owner")
     List<Item> findByOwnerId(Long ownerId);
 
+    @Query(value = "SELECT i.id AS id, i.name AS name, i.description AS description, " +
+            "i.available AS available, i.request_id AS requestId, " +
+            "lb.end_date AS lastBooking, nb.start_date AS nextBooking " +
+            "FROM items i " +
+            "LEFT JOIN (SELECT b.item_id, b.end_date, " +
+            "  ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC, b.id DESC) AS rn " +
+            "  FROM bookings b JOIN items o ON o.id = b.item_id " +
+            "  WHERE o.owner_id = :ownerId AND b.status = 'APPROVED' AND b.end_date < :now) lb " +
+            "  ON lb.item_id = i.id AND lb.rn = 1 " +
+            "LEFT JOIN (SELECT b.item_id, b.start_date, " +
+            "  ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC, b.id ASC) AS rn " +
+            "  FROM bookings b JOIN items o ON o.id = b.item_id " +
+            "  WHERE o.owner_id = :ownerId AND b.status = 'APPROVED' AND b.start_date > :now) nb " +
+            "  ON nb.item_id = i.id AND nb.rn = 1 " +
+            "WHERE i.owner_id = :ownerId " +
+            "ORDER BY i.id", nativeQuery = true)
+    List<OwnerItemView> findOwnerItemsWithBookings(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                   Pageable pageable);
+
+    /**
+     * Блокировка строки вещи брони без загрузки вещи; блокируются только вещи владельца ownerId, чтобы
+     * чужой запрос не заставлял ждать подтверждения владельца. Пустой результат - брони нет или вещь чужая.
+     */
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.id = (SELECT b.item_id FROM bookings b WHERE b.id = :bookingId) AND i.owner_id = :ownerId " +
+            "FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockByBookingId(@Param("bookingId") Long bookingId, @Param("ownerId") Long ownerId);
+
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.id IN (SELECT b.item_id FROM bookings b WHERE b.id IN :bookingIds) AND i.owner_id = :ownerId " +
+            "ORDER BY i.id FOR UPDATE", nativeQuery = true)
+    List<Long> lockAllByBookingIdIn(@Param("bookingIds") Collection<Long> bookingIds, @Param("ownerId") Long ownerId);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
     List<Item> findByRequestId(Long requestId);
 
     List<Item> findByRequestIdIn(List<Long> requestIds);
 
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT i FROM Item i WHERE i.available = TRUE AND " +
+            "(lower(i.name) LIKE lower(concat('%', :txt, '%')) OR " +
+            " lower(i.description) LIKE lower(concat('%', :txt, '%'))) ORDER BY i.id")
+    List<Item> search(@Param("txt") String text, Pageable pageable);
+
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT i FROM Item i WHERE i.available = TRUE AND " +
+            "(lower(i.name) LIKE :pattern ESCAPE '\\' OR lower(i.description) LIKE :pattern ESCAPE '\\') " +
+            "ORDER BY i.id")
+    List<Item> searchByPattern(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "SELECT i.id FROM items i, plainto_tsquery('russian', :txt) q " +
+            "WHERE i.available = TRUE AND i.search_vector @@ q " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id", nativeQuery = true)
+    List<Long> fullTextSearch(@Param("txt") String text, Pageable pageable);
+
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "owner")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Streaming.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
     @Query("SELECT i FROM Item i WHERE i.available = TRUE AND " +
             "(lower(i.name) LIKE lower(concat('%', :txt, '%')) OR " +
-            " lower(i.description) LIKE lower(concat('%', :txt, '%')))")
-    List<Item> search(@Param("txt") String text);
-}
\ No newline at end of file
+            " lower(i.description) LIKE lower(concat('%', :txt, '%'))) ORDER BY i.id")
+    Stream<Item> streamSearch(@Param("txt") String text);
+
+    @EntityGraph(attributePaths = "owner")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Streaming.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT i FROM Item i WHERE i.available = TRUE AND " +
+            "(lower(i.name) LIKE :pattern ESCAPE '\\' OR lower(i.description) LIKE :pattern ESCAPE '\\') " +
+            "ORDER BY i.id")
+    Stream<Item> streamByPattern(@Param("pattern") String pattern);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Streaming.FETCH_SIZE))
+    @Query(value = "SELECT i.id FROM items i, plainto_tsquery('russian', :txt) q " +
+            "WHERE i.available = TRUE AND i.search_vector @@ q " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id", nativeQuery = true)
+    Stream<Long> streamFullTextSearch(@Param("txt") String text);
+}
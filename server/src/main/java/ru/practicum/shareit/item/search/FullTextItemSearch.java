@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.streaming.Streaming;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Поиск по словам через tsvector-колонку items.search_vector (GIN-индекс, см. schema.sql).
+ * Работает только на PostgreSQL; выдача отсортирована по ts_rank.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "fulltext")
+@RequiredArgsConstructor
+public class FullTextItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        return inRankOrder(itemRepository.fullTextSearch(text, page));
+    }
+
+    @Override
+    public void stream(String text, Consumer<List<Item>> chunks) {
+        try (Stream<Long> ids = itemRepository.streamFullTextSearch(text)) {
+            Streaming.forEachChunk(ids, chunk -> chunks.accept(inRankOrder(chunk)));
+        }
+    }
+
+    private List<Item> inRankOrder(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Item> items = itemRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .toList();
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ItemSearch {
+    List<Item> search(String text, Pageable page);
+
+    /**
+     * Вся выдача без пагинации, порциями в порядке {@link #search}. Строки читаются
+     * курсором, поэтому вызывать внутри транзакции.
+     */
+    void stream(String text, Consumer<List<Item>> chunks);
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.streaming.Streaming;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "like", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LikeItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        return itemRepository.search(text, page);
+    }
+
+    @Override
+    public void stream(String text, Consumer<List<Item>> chunks) {
+        try (Stream<Item> items = itemRepository.streamSearch(text)) {
+            Streaming.forEachChunk(items, chunks);
+        }
+    }
+}
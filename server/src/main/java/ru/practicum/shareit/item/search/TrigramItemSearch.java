@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.streaming.Streaming;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Подстрочный поиск с той же семантикой, что и {@link LikeItemSearch}, но рассчитанный на
+ * pg_trgm GIN-индексы по lower(name)/lower(description) (см. schema.sql): шаблон собирается
+ * заранее, а %, _ и \ из запроса экранируются и ищутся буквально.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "trigram")
+@RequiredArgsConstructor
+public class TrigramItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        return itemRepository.searchByPattern(containsPattern(text), page);
+    }
+
+    @Override
+    public void stream(String text, Consumer<List<Item>> chunks) {
+        try (Stream<Item> items = itemRepository.streamByPattern(containsPattern(text))) {
+            Streaming.forEachChunk(items, chunks);
+        }
+    }
+
+    static String containsPattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
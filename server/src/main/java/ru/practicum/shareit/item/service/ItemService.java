@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.comment.CommentDto;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.PageParams;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto create(Long userId, ItemDto itemDto);
@@ -12,9 +15,16 @@ public interface ItemService {
 
     ItemDto getById(Long userId, Long itemId);
 
-    List<ItemDto> getAllByOwner(Long userId);
+    /**
+     * То же, что {@link #getById}, вместе с id владельца вещи.
+     */
+    ItemDetailCache.Entry getDetails(Long userId, Long itemId);
 
-    List<ItemDto> search(String text);
+    List<ItemDto> getAllByOwner(Long userId, PageParams page);
+
+    List<ItemDto> search(String text, PageParams page);
+
+    void streamSearch(String text, Consumer<ItemDto> sink);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto dto);
 }
\ No newline at end of file
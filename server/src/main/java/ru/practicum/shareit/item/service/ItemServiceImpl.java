@@ -1,18 +1,23 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManager;
 import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingServiceImpl;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentDto;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -20,7 +25,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Service
 public class ItemServiceImpl implements ItemService {
@@ -29,16 +34,23 @@ public class ItemServiceImpl implements ItemService {
     private final BookingServiceImpl bookingService;
     private final CommentRepository commentRepository;
     private final ItemMapper itemMapper;
+    private final ItemSearch itemSearch;
+    private final EntityManager entityManager;
+    private final ItemDetailCache itemDetailCache;
 
     @Autowired
     public ItemServiceImpl(ItemRepository itemRepository, UserRepository userRepository,
                            BookingServiceImpl bookingService, CommentRepository commentRepository,
-                           ItemMapper itemMapper) {
+                           ItemMapper itemMapper, ItemSearch itemSearch, EntityManager entityManager,
+                           ItemDetailCache itemDetailCache) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.bookingService = bookingService;
         this.commentRepository = commentRepository;
         this.itemMapper = itemMapper;
+        this.itemSearch = itemSearch;
+        this.entityManager = entityManager;
+        this.itemDetailCache = itemDetailCache;
     }
 
     @Override
@@ -63,34 +75,50 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getDescription() != null) existing.setDescription(itemDto.getDescription());
         if (itemDto.getAvailable() != null) existing.setAvailable(itemDto.getAvailable());
         Item updated = itemRepository.save(existing);
+        itemDetailCache.evict(itemId);
         return itemMapper.toDto(updated);
     }
 
     @Override
     public ItemDto getById(Long userId, Long itemId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NoSuchElementException("Item not found"));
-        if (userId.equals(item.getOwner().getId())) {
-            return itemMapper.toDto(item);
-        }
-        return itemMapper.toSimpleDto(item);
+        return getDetails(userId, itemId).item();
+    }
+
+    @Override
+    public ItemDetailCache.Entry getDetails(Long userId, Long itemId) {
+        return itemDetailCache.get(itemId, userId, id -> {
+            Item item = itemRepository.findById(id)
+                    .orElseThrow(() -> new NoSuchElementException("Item not found"));
+            Long ownerId = item.getOwner().getId();
+            return new ItemDetailCache.Entry(ownerId,
+                    userId.equals(ownerId) ? itemMapper.toDto(item) : itemMapper.toSimpleDto(item));
+        });
     }
 
     @Override
-    public List<ItemDto> getAllByOwner(Long userId) {
-        return itemRepository.findByOwnerId(userId).stream()
-                .map(itemMapper::toSimpleDto)
-                .collect(Collectors.toList());
+    public List<ItemDto> getAllByOwner(Long userId, PageParams page) {
+        return itemMapper.toOwnerDtos(
+                itemRepository.findOwnerItemsWithBookings(userId, LocalDateTime.now(), page.pageable()));
     }
 
     @Override
-    public List<ItemDto> search(String text) {
+    public List<ItemDto> search(String text, PageParams page) {
         if (text.isEmpty()) {
             return new ArrayList<>();
         }
-        return itemRepository.search(text).stream()
-                .map(itemMapper::toSimpleDto)
-                .collect(Collectors.toList());
+        return itemMapper.toSimpleDtos(itemSearch.search(text, page.pageable()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamSearch(String text, Consumer<ItemDto> sink) {
+        if (text.isEmpty()) {
+            return;
+        }
+        itemSearch.stream(text, items -> {
+            itemMapper.toSimpleDtos(items).forEach(sink);
+            entityManager.clear();
+        });
     }
 
     @Override
@@ -104,6 +132,7 @@ public class ItemServiceImpl implements ItemService {
                 .item(itemRepository.getReferenceById(itemId))
                 .created(LocalDateTime.now())
                 .build());
+        itemDetailCache.evict(itemId);
         return CommentMapper.toDto(comment);
     }
 }
\ No newline at end of file
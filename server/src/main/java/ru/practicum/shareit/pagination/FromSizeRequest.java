@@ -0,0 +1,32 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+public class FromSizeRequest extends PageRequest {
+    private final int from;
+
+    private FromSizeRequest(int from, int size, Sort sort) {
+        super(from / size, size, sort);
+        this.from = from;
+    }
+
+    public static FromSizeRequest of(int from, int size) {
+        return new FromSizeRequest(from, size, Sort.unsorted());
+    }
+
+    @Override
+    public long getOffset() {
+        return from;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FromSizeRequest that && from == that.from && super.equals(that);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + from;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.pagination;
+
+import jakarta.validation.ValidationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Параметры страницы списка. Либо смещение {@code from}/{@code size}, либо курсор:
+ * время и id последней записи предыдущей страницы ({@code afterTime}/{@code afterId}).
+ * С курсором страница читается seek-запросом по (время, id) и не зависит от глубины.
+ */
+public record PageParams(int from, int size, LocalDateTime afterTime, Long afterId) {
+
+    public PageParams {
+        if (from < 0) {
+            throw new ValidationException("from не может быть отрицательным");
+        }
+        if (size < 1) {
+            throw new ValidationException("size должен быть положительным");
+        }
+        if ((afterTime == null) != (afterId == null)) {
+            throw new ValidationException("Курсор задаётся парой: время и id последней записи");
+        }
+    }
+
+    public static PageParams of(int from, int size) {
+        return new PageParams(from, size, null, null);
+    }
+
+    public boolean isKeyset() {
+        return afterId != null;
+    }
+
+    public ScrollPosition position(String timeProperty) {
+        if (isKeyset()) {
+            return ScrollPosition.forward(Map.of(timeProperty, afterTime, "id", afterId));
+        }
+        return from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1);
+    }
+
+    public Limit limit() {
+        return Limit.of(size);
+    }
+
+    public Pageable pageable() {
+        return FromSizeRequest.of(isKeyset() ? 0 : from, size);
+    }
+}
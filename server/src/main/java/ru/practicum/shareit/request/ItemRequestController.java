@@ -1,8 +1,10 @@
 package ru.practicum.shareit.request;
 
-
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.PageParams;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -30,6 +32,17 @@ public class ItemRequestController {
         return service.getByUser(userId);
     }
 
+    @GetMapping("/all")
+    public List<ItemRequestDto> getOthers(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                          @RequestParam(defaultValue = "0") int from,
+                                          @RequestParam(defaultValue = "10") int size,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                          LocalDateTime afterCreated,
+                                          @RequestParam(required = false) Long afterId) {
+        return service.getAll(userId, new PageParams(from, size, afterCreated, afterId));
+    }
+
     @GetMapping("/{requestId}")
     public ItemRequestDto getById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                   @PathVariable("requestId") Long requestId) {
@@ -1,10 +1,9 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
-
-import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
@@ -12,6 +11,6 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(Long requesterId);
 
-    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id <> :userId ORDER BY r.created DESC")
-    List<ItemRequest> findOtherUsersRequests(@Param("userId") Long userId, Pageable pageable);
-}
\ No newline at end of file
+    Window<ItemRequest> findByRequesterIdNotOrderByCreatedDescIdDesc(
+            Long userId, ScrollPosition position, Limit limit);
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.pagination.PageParams;
+
 import java.util.List;
 
 public interface ItemRequestService {
@@ -7,7 +9,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getByUser(Long userId);
 
-    List<ItemRequestDto> getAll(Long userId);
+    List<ItemRequestDto> getAll(Long userId, PageParams page);
 
     ItemRequestDto getById(Long userId, Long requestId);
 }
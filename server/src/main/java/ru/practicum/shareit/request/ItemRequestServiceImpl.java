@@ -2,11 +2,10 @@ package ru.practicum.shareit.request;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -38,8 +37,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequestDto> getAll(Long userId) {
-        return findOthers(userId, 0, Integer.MAX_VALUE);
+    public List<ItemRequestDto> getAll(Long userId, PageParams page) {
+        return findOthers(userId, page);
     }
 
     @Override
@@ -55,9 +54,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return toDtosWithAnswers(reqs);
     }
 
-    public List<ItemRequestDto> findOthers(Long userId, int from, int size) {
-        Pageable page = PageRequest.of(from / size, size);
-        List<ItemRequest> reqs = requestRepo.findOtherUsersRequests(userId, page);
+    public List<ItemRequestDto> findOthers(Long userId, PageParams page) {
+        List<ItemRequest> reqs = requestRepo.findByRequesterIdNotOrderByCreatedDescIdDesc(
+                userId, page.position("created"), page.limit()).getContent();
         return toDtosWithAnswers(reqs);
     }
 
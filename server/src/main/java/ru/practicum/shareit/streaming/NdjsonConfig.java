@@ -0,0 +1,47 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Ошибки потоковых эндпоинтов возникают до первой строки выдачи, а клиент принимает только
+ * application/x-ndjson. Ответ об ошибке — один JSON-объект, то есть корректная ndjson-строка,
+ * поэтому разрешаем Jackson писать его и в этом типе, но только в запросах, которые начал
+ * {@link NdjsonWriter#open}. Остальные эндпоинты на Accept: application/x-ndjson отвечают 406.
+ */
+@Configuration
+public class NdjsonConfig implements WebMvcConfigurer {
+    static final String STREAMING_ATTRIBUTE = NdjsonConfig.class.getName() + ".STREAMING";
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        MappingJackson2HttpMessageConverter ndjson = new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+                return isStreamingRequest() && super.canWrite(clazz, mediaType);
+            }
+        };
+        ndjson.setSupportedMediaTypes(List.of(MediaType.APPLICATION_NDJSON));
+        converters.add(ndjson);
+    }
+
+    private static boolean isStreamingRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && attributes.getAttribute(STREAMING_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+}
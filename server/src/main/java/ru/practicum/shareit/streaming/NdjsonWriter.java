@@ -0,0 +1,62 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Пишет объекты в поток построчно (application/x-ndjson): по JSON-документу на строку.
+ * Выталкивает данные клиенту каждые {@link Streaming#CHUNK_SIZE} строк, так что первая
+ * порция уходит, не дожидаясь конца выборки.
+ */
+public class NdjsonWriter<T> implements Consumer<T> {
+    private static final byte NEW_LINE = '\n';
+
+    private final ObjectWriter writer;
+    private final OutputStream out;
+    private long written;
+
+    public NdjsonWriter(ObjectMapper mapper, OutputStream out) {
+        this.writer = mapper.writer();
+        this.out = out;
+    }
+
+    /**
+     * Начинает потоковый ответ: тип application/x-ndjson и отметка в запросе, по которой
+     * {@link NdjsonConfig} позволяет записать в этом типе и ошибку.
+     */
+    public static <T> NdjsonWriter<T> open(ObjectMapper mapper, HttpServletRequest request,
+                                           HttpServletResponse response) throws IOException {
+        request.setAttribute(NdjsonConfig.STREAMING_ATTRIBUTE, Boolean.TRUE);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new NdjsonWriter<>(mapper, response.getOutputStream());
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            out.write(writer.writeValueAsBytes(value));
+            out.write(NEW_LINE);
+            if (++written % Streaming.CHUNK_SIZE == 0) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
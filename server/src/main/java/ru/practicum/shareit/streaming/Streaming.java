@@ -0,0 +1,44 @@
+package ru.practicum.shareit.streaming;
+
+import jakarta.validation.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Общие настройки потоковой выдачи: строки читаются курсором по {@link #FETCH_SIZE}
+ * и обрабатываются порциями того же размера, после каждой порции контекст персистентности
+ * очищается, поэтому расход памяти не зависит от размера выборки.
+ */
+public final class Streaming {
+    public static final String FETCH_SIZE = "500";
+    public static final int CHUNK_SIZE = 500;
+
+    private Streaming() {
+    }
+
+    /**
+     * Потоковая выдача - вся выборка целиком; окно from/size молча не применяется, а отклоняется.
+     */
+    public static void rejectPaging(Integer from, Integer size) {
+        if (from != null || size != null) {
+            throw new ValidationException("Потоковая выдача (application/x-ndjson) не поддерживает from/size");
+        }
+    }
+
+    public static <T> void forEachChunk(Stream<T> stream, Consumer<List<T>> action) {
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        stream.forEach(value -> {
+            chunk.add(value);
+            if (chunk.size() == CHUNK_SIZE) {
+                action.accept(chunk);
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            action.accept(chunk);
+        }
+    }
+}
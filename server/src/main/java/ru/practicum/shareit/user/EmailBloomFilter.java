@@ -0,0 +1,86 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Фильтр Блума по e-mail пользователей: ответ «нет» точный, и тогда проверку existsByEmail можно не делать,
+ * ответ «возможно» требует запроса в БД. Удалить e-mail из фильтра нельзя, поэтому удалённые и сменённые адреса
+ * дают лишние запросы, но не ошибки. Фильтр заполняется на своём узле, адреса с других узлов он не видит:
+ * источник истины - уникальное ограничение users_email_key, нарушение которого превращается в ExceptionSameEmail.
+ * Размер считается из ожидаемого числа адресов и доли ложных срабатываний.
+ */
+@Component
+public class EmailBloomFilter {
+    private final int bitCount;
+    private final int hashCount;
+    private volatile AtomicLongArray bits;
+
+    public EmailBloomFilter(@Value("${shareit.users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${shareit.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Некорректные параметры фильтра e-mail");
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    public boolean mightContain(String email) {
+        AtomicLongArray current = bits;
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            if ((current.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String email) {
+        AtomicLongArray current = bits;
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            current.getAndAccumulate(bit >>> 6, 1L << bit, (word, mask) -> word | mask);
+        }
+    }
+
+    /**
+     * Заполняет фильтр заново. Пустой массив подменяется до чтения потока, так что put из параллельных
+     * регистраций попадает уже в новый фильтр; пока поток не дочитан, часть занятых адресов отвечает «нет»
+     * и такие регистрации упираются в уникальное ограничение.
+     */
+    public long rebuild(Stream<String> emails) {
+        bits = new AtomicLongArray(bits.length());
+        long[] count = {0};
+        emails.forEach(email -> {
+            put(email);
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
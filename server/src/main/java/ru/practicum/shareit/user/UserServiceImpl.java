@@ -1,33 +1,63 @@
 package ru.practicum.shareit.user;
 
 import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.InvalidationEvent;
 import ru.practicum.shareit.exception.ExceptionSameEmail;
+import ru.practicum.shareit.item.repository.ItemRepository;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
+    private final ItemRepository itemRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final EmailBloomFilter emailFilter;
 
     @Autowired
-    public UserServiceImpl(UserRepository repository) {
+    public UserServiceImpl(UserRepository repository, ItemRepository itemRepository,
+                           CacheInvalidationBus invalidationBus, EmailBloomFilter emailFilter) {
         this.repository = repository;
+        this.itemRepository = itemRepository;
+        this.invalidationBus = invalidationBus;
+        this.emailFilter = emailFilter;
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadEmailFilter() {
+        try (Stream<String> emails = repository.streamAllEmails()) {
+            log.info("Фильтр e-mail заполнен: {} адресов", emailFilter.rebuild(emails));
+        }
+    }
+
+    /**
+     * Если фильтр e-mail отвечает «нет», адрес свободен без запроса existsByEmail, и регистрация
+     * обходится одним INSERT. Гонки и адреса, зарегистрированные на других узлах, ловит уникальное ограничение.
+     */
     @Override
     public UserDto create(UserDto userDto) {
-        if (repository.existsByEmail(userDto.getEmail())) {
-            throw new ExceptionSameEmail();
-        }
         if (userDto.getEmail() == null) {
             throw new ValidationException("email не может быть пустым");
         }
-        User user = UserMapper.toModel(userDto);
-        User saved = repository.save(user);
+        if (emailFilter.mightContain(userDto.getEmail()) && repository.existsByEmail(userDto.getEmail())) {
+            throw new ExceptionSameEmail();
+        }
+        User saved = saveUnique(UserMapper.toModel(userDto));
+        invalidationBus.publish(InvalidationEvent.Type.USER, List.of(saved.getId()));
         return UserMapper.toDto(saved);
     }
 
@@ -35,12 +65,15 @@ public class UserServiceImpl implements UserService {
     public UserDto update(Long userId, UserDto userDto) {
         User existing = repository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
-        if (repository.existsByEmailAndIdNot(userDto.getEmail(), userId)) {
+        String email = userDto.getEmail();
+        if (email != null && !email.equals(existing.getEmail())
+                && emailFilter.mightContain(email) && repository.existsByEmailAndIdNot(email, userId)) {
             throw new ExceptionSameEmail();
         }
         if (userDto.getName() != null) existing.setName(userDto.getName());
-        if (userDto.getEmail() != null) existing.setEmail(userDto.getEmail());
-        User updated = repository.save(existing);
+        if (email != null) existing.setEmail(email);
+        User updated = saveUnique(existing);
+        invalidationBus.publish(InvalidationEvent.Type.USER, List.of(userId));
         return UserMapper.toDto(updated);
     }
 
@@ -58,8 +91,36 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Вещи пользователя удаляет ON DELETE CASCADE в базе, мимо Hibernate, поэтому их id собираются
+     * до удаления и сбрасываются из кэшей вместе с пользователем.
+     */
     @Override
+    @Transactional
     public void delete(Long userId) {
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId);
         repository.deleteById(userId);
+        invalidationBus.publish(InvalidationEvent.Type.USER, List.of(userId));
+        invalidationBus.publish(InvalidationEvent.Type.ITEM, itemIds);
+    }
+
+    private User saveUnique(User user) {
+        User saved;
+        try {
+            saved = repository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConstraint(e)) {
+                emailFilter.put(user.getEmail());
+                throw new ExceptionSameEmail();
+            }
+            throw e;
+        }
+        emailFilter.put(saved.getEmail());
+        return saved;
+    }
+
+    private static boolean isEmailConstraint(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
     }
 }
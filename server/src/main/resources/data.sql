@@ -3,6 +3,7 @@ TRUNCATE TABLE comments RESTART IDENTITY CASCADE;
 TRUNCATE TABLE items RESTART IDENTITY CASCADE;
 TRUNCATE TABLE item_requests RESTART IDENTITY CASCADE;
 TRUNCATE TABLE users RESTART IDENTITY CASCADE;
+TRUNCATE TABLE idempotency_keys;
 
 -- USERS
 CREATE TABLE IF NOT EXISTS users (
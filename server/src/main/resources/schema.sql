@@ -1,20 +1,29 @@
+-- ID SEQUENCES: шаг равен allocationSize сущностей (pooled optimizer Hibernate),
+-- чтобы id выдавались блоками и INSERT'ы шли JDBC-пакетами
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_requests_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+
 -- USERS
 CREATE TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT DEFAULT nextval('users_seq') PRIMARY KEY,
   name        VARCHAR(255)  NOT NULL,
-  email       VARCHAR(512)  NOT NULL UNIQUE
+  email       VARCHAR(512)  NOT NULL CONSTRAINT users_email_key UNIQUE
 );
 
 CREATE TABLE IF NOT EXISTS item_requests (
-    id            BIGSERIAL PRIMARY KEY,
+    id            BIGINT DEFAULT nextval('item_requests_seq') PRIMARY KEY,
     description   TEXT      NOT NULL,
     requester_id  BIGINT    NOT NULL,
     created       TIMESTAMP NOT NULL,
     CONSTRAINT fk_request_user FOREIGN KEY(requester_id) REFERENCES users(id)
 );
+CREATE INDEX IF NOT EXISTS idx_item_requests_created_id ON item_requests (created DESC, id DESC);
 -- ITEMS
 CREATE TABLE IF NOT EXISTS items (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT DEFAULT nextval('items_seq') PRIMARY KEY,
   name        VARCHAR(255)  NOT NULL,
   description TEXT          NOT NULL,
   available   BOOLEAN       NOT NULL,
@@ -22,22 +31,97 @@ CREATE TABLE IF NOT EXISTS items (
   request_id  BIGINT,
   CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES item_requests(id)
 );
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+-- ITEMS FULL-TEXT SEARCH (shareit.search.mode=fulltext)
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+  ) STORED;
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector) WHERE available;
+
+-- ITEMS SUBSTRING SEARCH (shareit.search.mode=trigram)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING GIN (lower(name) gin_trgm_ops) WHERE available;
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (lower(description) gin_trgm_ops) WHERE available;
 
 -- BOOKINGS
+CREATE EXTENSION IF NOT EXISTS btree_gist;
 CREATE TABLE IF NOT EXISTS bookings (
-  id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id         BIGINT DEFAULT nextval('bookings_seq') PRIMARY KEY,
   item_id    BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
   booker_id  BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
   start_date TIMESTAMP NOT NULL,
   end_date   TIMESTAMP NOT NULL,
-  status     VARCHAR(32) NOT NULL
+  status     VARCHAR(32) NOT NULL,
+  CONSTRAINT bookings_no_overlap EXCLUDE USING gist (
+    item_id WITH =, tsrange(start_date, end_date) WITH &&
+  ) WHERE (status = 'APPROVED')
 );
+-- таблица могла появиться раньше ограничения, а CREATE TABLE IF NOT EXISTS её уже не трогает.
+-- EXCLUDE не бывает NOT VALID: если в базе уже есть пересекающиеся подтверждённые брони, ограничение
+-- не добавляется (иначе сервер не стартует), а в лог идёт предупреждение; следующий старт попробует снова.
+-- Тело DO в обычных кавычках: скрипт делится на команды по ';' вне кавычек, $$ для него не кавычки
+DO '
+BEGIN
+  IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''bookings_no_overlap'') THEN
+    RETURN;
+  END IF;
+  IF EXISTS (
+    SELECT 1 FROM bookings a JOIN bookings b ON b.item_id = a.item_id AND b.id > a.id
+    WHERE a.status = ''APPROVED'' AND b.status = ''APPROVED''
+      AND tsrange(a.start_date, a.end_date) && tsrange(b.start_date, b.end_date)
+  ) THEN
+    RAISE WARNING ''bookings_no_overlap not added: bookings contains overlapping APPROVED bookings'';
+    RETURN;
+  END IF;
+  ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap EXCLUDE USING gist (
+    item_id WITH =, tsrange(start_date, end_date) WITH &&
+  ) WHERE (status = ''APPROVED'');
+END
+';
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
 
 -- COMMENTS
 CREATE TABLE IF NOT EXISTS comments (
-  id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id         BIGINT DEFAULT nextval('comments_seq') PRIMARY KEY,
   text       TEXT          NOT NULL,
   author_id  BIGINT        NOT NULL REFERENCES users(id) ON DELETE CASCADE,
   item_id    BIGINT        NOT NULL REFERENCES items(id) ON DELETE CASCADE,
   created    TIMESTAMP     NOT NULL
 );
+
+-- IDEMPOTENCY KEYS: ответы на повторяемые POST, строки старше shareit.idempotency.ttl удаляются по расписанию
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+  id          VARCHAR(160) PRIMARY KEY,
+  fingerprint CHAR(64)     NOT NULL,
+  response    TEXT         NOT NULL,
+  created     TIMESTAMP    NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created ON idempotency_keys (created);
+
+-- MIGRATION: IDENTITY/BIGSERIAL -> sequences. Повторный запуск ничего не меняет,
+-- setval только сдвигает последовательность вперёд за уже выданные id
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM users), (SELECT last_value FROM users_seq)));
+ALTER TABLE item_requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE item_requests ALTER COLUMN id SET DEFAULT nextval('item_requests_seq');
+ALTER SEQUENCE item_requests_seq OWNED BY item_requests.id;
+SELECT setval('item_requests_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM item_requests), (SELECT last_value FROM item_requests_seq)));
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.id;
+SELECT setval('items_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM items), (SELECT last_value FROM items_seq)));
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER SEQUENCE bookings_seq OWNED BY bookings.id;
+SELECT setval('bookings_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM bookings), (SELECT last_value FROM bookings_seq)));
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER SEQUENCE comments_seq OWNED BY comments.id;
+SELECT setval('comments_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM comments), (SELECT last_value FROM comments_seq)));
+DROP SEQUENCE IF EXISTS item_requests_id_seq;
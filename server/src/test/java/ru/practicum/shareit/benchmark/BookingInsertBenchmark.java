@@ -0,0 +1,100 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Вставка 100 000 броней через Hibernate: по одному INSERT на строку (как при IDENTITY, где id нужен сразу
+ * и пакеты отключены) против id из последовательности с pooled-оптимизатором и JDBC-пакетами
+ * hibernate.jdbc.batch_size. На H2 в памяти нет сетевых задержек, на PostgreSQL разница больше.
+ * Не входит в mvn test, запуск: mvn test -pl server -Dtest=BookingInsertBenchmark.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureTestDatabase
+@Transactional
+@Slf4j
+class BookingInsertBenchmark {
+    private static final int BOOKINGS = 100_000;
+    private static final int FLUSH_EVERY = 1_000;
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    Long bookerId;
+    Long itemId;
+    LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    @BeforeEach
+    void seed() {
+        User booker = User.builder().name("booker").email("booker@mail.com").build();
+        em.persist(booker);
+        Item item = Item.builder().name("Дрель").description("Ударная").available(true).owner(booker).build();
+        em.persist(item);
+        em.flush();
+        bookerId = booker.getId();
+        itemId = item.getId();
+    }
+
+    @Test
+    void insert100k() {
+        Session session = em.unwrap(Session.class);
+        Statistics statistics = session.getSessionFactory().getStatistics();
+
+        statistics.clear();
+        session.setJdbcBatchSize(1);
+        double rowByRow = insert(session);
+        long rowByRowStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        session.setJdbcBatchSize(null);
+        double batched = insert(session);
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        log.info(String.format("%d bookings: row by row %.0f rows/s (%d statements) | " +
+                        "pooled sequence + batches %.0f rows/s (%d statements)",
+                BOOKINGS, rowByRow, rowByRowStatements, batched, batchedStatements));
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM bookings", Long.class)).isEqualTo(2L * BOOKINGS);
+        assertThat(batchedStatements).isLessThan(rowByRowStatements / 10);
+        assertThat(batched).isGreaterThan(rowByRow);
+    }
+
+    private double insert(Session session) {
+        long started = System.nanoTime();
+        for (int i = 0; i < BOOKINGS; i++) {
+            session.persist(Booking.builder()
+                    .item(session.getReference(Item.class, itemId))
+                    .booker(session.getReference(User.class, bookerId))
+                    .start(start.plusMinutes(i)).end(start.plusMinutes(i + 1))
+                    .status(BookingStatus.WAITING).build());
+            if ((i + 1) % FLUSH_EVERY == 0) {
+                session.flush();
+                session.clear();
+            }
+        }
+        session.flush();
+        session.clear();
+        return BOOKINGS / ((System.nanoTime() - started) / 1e9);
+    }
+}
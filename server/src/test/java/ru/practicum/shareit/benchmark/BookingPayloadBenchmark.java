@@ -0,0 +1,118 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Размер ответа и время /bookings/owner: прежний ответ с сущностями Item и User внутри
+ * против компактной JPQL-проекции (id и name вещи и арендатора).
+ * Не входит в mvn test, запуск: mvn test -pl server -Dtest=BookingPayloadBenchmark.
+ */
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureTestDatabase
+@Transactional
+@Slf4j
+class BookingPayloadBenchmark {
+    private static final int BOOKINGS = 1_000;
+    private static final int RUNS = 25;
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    EntityManager em;
+
+    User owner;
+
+    @BeforeEach
+    void seed() {
+        owner = User.builder().name("owner").email("owner@mail.com").build();
+        User booker = User.builder().name("booker").email("booker@mail.com").build();
+        em.persist(owner);
+        em.persist(booker);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Item item = Item.builder().name("Дрель " + i).description("Ударная дрель, аккумулятор в комплекте")
+                    .available(true).owner(owner).build();
+            em.persist(item);
+            em.persist(Booking.builder().item(item).booker(booker).start(start.plusHours(i))
+                    .end(start.plusHours(i + 1)).status(BookingStatus.WAITING).build());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void ownerList() {
+        Supplier<byte[]> entities = () -> {
+            em.clear();
+            List<LegacyBookingDto> legacy = bookingRepository.findByOwner(owner.getId()).stream()
+                    .map(b -> new LegacyBookingDto(b.getId(), b.getItem(), b.getBooker(), b.getStart(), b.getEnd(),
+                            b.getStatus()))
+                    .toList();
+            return write(legacy);
+        };
+        Supplier<byte[]> projection = () -> {
+            em.clear();
+            return write(bookingService.getAllByOwner(owner.getId(), "ALL", PageParams.of(0, BOOKINGS)));
+        };
+
+        int legacyBytes = entities.get().length;
+        int compactBytes = projection.get().length;
+        double legacyMs = median(entities);
+        double compactMs = median(projection);
+
+        log.info(String.format("/bookings/owner, %d rows: entities %d bytes %.2f ms | projection %d bytes %.2f ms",
+                BOOKINGS, legacyBytes, legacyMs, compactBytes, compactMs));
+        assertThat(compactBytes).isLessThan(legacyBytes);
+        assertThat(compactMs).isLessThan(legacyMs);
+    }
+
+    private double median(Supplier<byte[]> run) {
+        double[] timings = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            run.get();
+            timings[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(timings);
+        return timings[RUNS / 2];
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record LegacyBookingDto(Long id, Item item, User booker, LocalDateTime start, LocalDateTime end,
+                            BookingStatus status) {
+    }
+}
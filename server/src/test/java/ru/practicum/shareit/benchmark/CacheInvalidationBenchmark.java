@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.InvalidationEvent;
+import ru.practicum.shareit.cache.InvalidationListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Задержка сброса кэша между двумя узлами через LISTEN/NOTIFY: узел A публикует изменения вещей,
+ * узел B их получает, лаг берётся из его таймера cache.invalidation.lag.
+ * Не входит в mvn test, запуск: mvn test -pl server -Dtest=CacheInvalidationBenchmark (нужен Docker).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@Slf4j
+class CacheInvalidationBenchmark {
+    private static final int EVENTS = 2_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15.13-alpine3.22");
+
+    @Test
+    void lagBetweenNodes() throws Exception {
+        CacheInvalidationBus nodeA = node(new SimpleMeterRegistry());
+        SimpleMeterRegistry registryB = new SimpleMeterRegistry();
+        CacheInvalidationBus nodeB = node(registryB);
+        CountDownLatch delivered = new CountDownLatch(EVENTS);
+        nodeA.subscribe(InvalidationEvent.Type.ITEM, listener(new CountDownLatch(0)));
+        nodeB.subscribe(InvalidationEvent.Type.ITEM, listener(delivered));
+        Thread.sleep(500);
+
+        for (long id = 0; id < EVENTS; id++) {
+            nodeA.publish(InvalidationEvent.Type.ITEM, List.of(id));
+        }
+
+        assertThat(delivered.await(30, TimeUnit.SECONDS)).isTrue();
+        Timer lag = registryB.get("cache.invalidation.lag").timer();
+        log.info(String.format("%d invalidations A -> B: mean %.2f ms, max %.2f ms", lag.count(),
+                lag.mean(TimeUnit.MILLISECONDS), lag.max(TimeUnit.MILLISECONDS)));
+        assertThat(lag.count()).isEqualTo(EVENTS);
+        assertThat(lag.max(TimeUnit.MILLISECONDS)).isLessThan(1_000);
+        nodeA.stop();
+        nodeB.stop();
+    }
+
+    private static CacheInvalidationBus node(SimpleMeterRegistry registry) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(),
+                POSTGRES.getUsername(), POSTGRES.getPassword());
+        CacheInvalidationBus bus = new CacheInvalidationBus(new JdbcTemplate(dataSource), dataSource, registry,
+                Duration.ofMillis(50));
+        bus.start();
+        return bus;
+    }
+
+    private static InvalidationListener listener(CountDownLatch latch) {
+        return new InvalidationListener() {
+            @Override
+            public void evict(Collection<Long> ids) {
+                ids.forEach(id -> latch.countDown());
+            }
+
+            @Override
+            public void evictAll() {
+            }
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Сравнение текущего LIKE-поиска, подстрочного поиска по pg_trgm и полнотекстового поиска на каталоге в миллион вещей.
+ * Не входит в mvn test, запуск: mvn test -pl server -Dtest=ItemSearchBenchmark (нужен Docker).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@Slf4j
+class ItemSearchBenchmark {
+    private static final int CATALOG_SIZE = 1_000_000;
+    private static final int RUNS = 15;
+
+    private static final String LIKE_SQL = "SELECT i.id FROM items i WHERE i.available = TRUE AND " +
+            "(lower(i.name) LIKE lower(concat('%', ?, '%')) OR lower(i.description) LIKE lower(concat('%', ?, '%')))";
+    private static final String TRIGRAM_SQL = "SELECT i.id FROM items i WHERE i.available = TRUE AND " +
+            "(lower(i.name) LIKE ? ESCAPE '\\' OR lower(i.description) LIKE ? ESCAPE '\\')";
+    private static final String FULL_TEXT_SQL = "SELECT i.id FROM items i, plainto_tsquery('russian', ?) q " +
+            "WHERE i.available = TRUE AND i.search_vector @@ q ORDER BY ts_rank(i.search_vector, q) DESC, i.id";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15.13-alpine3.22");
+
+    static Connection connection;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        try (Statement st = connection.createStatement()) {
+            st.execute("INSERT INTO users (name, email) VALUES ('owner', 'owner@mail.com')");
+            st.execute("INSERT INTO items (name, description, available, owner_id) " +
+                    "SELECT (ARRAY['Дрель', 'Пила', 'Молоток', 'Лестница', 'Drill', 'Saw', 'Ladder', 'Hammer'])[1 + g % 8] " +
+                    "|| ' ' || g, 'Вещь номер ' || g || CASE WHEN g % 1000 = 1 THEN ' аккумуляторная' ELSE '' END, " +
+                    "g % 10 <> 0, 1 FROM generate_series(1, " + CATALOG_SIZE + ") g");
+            st.execute("ANALYZE items");
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void rareWord() throws SQLException {
+        compare("аккумуляторная");
+        assertThat(explain(FULL_TEXT_SQL, "аккумуляторная")).contains("idx_items_search_vector");
+        assertThat(explain(TRIGRAM_SQL, "%аккумуляторн%")).contains("idx_items_description_trgm");
+    }
+
+    @Test
+    void englishWord() throws SQLException {
+        compare("ladder");
+    }
+
+    private void compare(String text) throws SQLException {
+        String pattern = "%" + text + "%";
+        long likeRows = run(LIKE_SQL, text, 2);
+        long trigramRows = run(TRIGRAM_SQL, pattern, 2);
+        long fullTextRows = run(FULL_TEXT_SQL, text, 1);
+        double likeMs = median(LIKE_SQL, text, 2);
+        double trigramMs = median(TRIGRAM_SQL, pattern, 2);
+        double fullTextMs = median(FULL_TEXT_SQL, text, 1);
+
+        log.info(String.format("%-16s like: %6d rows %9.2f ms | trigram: %6d rows %9.2f ms | fulltext: %6d rows %9.2f ms",
+                text, likeRows, likeMs, trigramRows, trigramMs, fullTextRows, fullTextMs));
+        assertThat(trigramRows).isEqualTo(likeRows);
+        assertThat(fullTextRows).isEqualTo(likeRows);
+    }
+
+    private double median(String sql, String text, int params) throws SQLException {
+        double[] timings = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            run(sql, text, params);
+            timings[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(timings);
+        return timings[RUNS / 2];
+    }
+
+    private long run(String sql, String text, int params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 1; i <= params; i++) {
+                ps.setString(i, text);
+            }
+            long rows = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    private String explain(String sql, String text) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                ps.setString(i, text);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
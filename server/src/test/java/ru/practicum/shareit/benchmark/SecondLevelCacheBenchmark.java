@@ -0,0 +1,134 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Число SQL-запросов на воспроизведённой смеси запросов (проверка X-Sharer-User-Id, создание вещей
+ * и бронирований, регистрация с проверкой e-mail): второй уровень кэша очищается перед каждым запросом
+ * (как без кэша) против прогретого кэша. Каждый запрос - отдельная транзакция.
+ * Не входит в mvn test, запуск: mvn test -pl server -Dtest=SecondLevelCacheBenchmark.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureTestDatabase
+@Slf4j
+class SecondLevelCacheBenchmark {
+    private static final int USERS = 200;
+    private static final int ITEMS = 500;
+    private static final int REQUESTS = 5_000;
+
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    List<Long> userIds = new ArrayList<>();
+    List<Long> itemIds = new ArrayList<>();
+    int sequence;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < USERS; i++) {
+            userIds.add(userService.create(new UserDto(null, "user" + i, "l2-user" + i + "@mail")).getId());
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemService.create(userIds.get(i % USERS), ItemDto.builder()
+                    .name("Item " + i).description("d").available(true).build()).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void replayedLoad() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long start = System.nanoTime();
+        replay(true);
+        double coldMs = (System.nanoTime() - start) / 1_000_000.0;
+        long coldStatements = statistics.getPrepareStatementCount();
+
+        replay(false);
+        statistics.clear();
+        start = System.nanoTime();
+        replay(false);
+        double warmMs = (System.nanoTime() - start) / 1_000_000.0;
+        long warmStatements = statistics.getPrepareStatementCount();
+
+        log.info(String.format("%d requests: without L2 %d statements %.0f ms | with L2 %d statements %.0f ms, "
+                        + "L2 hit ratio %.2f, query cache hits %d",
+                REQUESTS, coldStatements, coldMs, warmStatements, warmMs,
+                (double) statistics.getSecondLevelCacheHitCount()
+                        / Math.max(1, statistics.getSecondLevelCacheHitCount() + statistics.getSecondLevelCacheMissCount()),
+                statistics.getQueryCacheHitCount()));
+        // смесь задаётся Random(42), так что число запросов детерминировано: прогретый кэш снимает больше трети
+        assertThat(warmStatements).isLessThan(coldStatements * 2 / 3);
+        assertThat(warmMs).isLessThan(coldMs);
+    }
+
+    private void replay(boolean evictBeforeEachRequest) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < REQUESTS; i++) {
+            if (evictBeforeEachRequest) {
+                entityManagerFactory.getCache().evictAll();
+            }
+            Long userId = userIds.get(random.nextInt(USERS));
+            int kind = random.nextInt(100);
+            if (kind < 50) {
+                userService.getById(userId);
+            } else if (kind < 80) {
+                LocalDateTime from = start.plusHours(sequence++);
+                bookingService.create(userId, BookingRequestDto.builder()
+                        .itemId(itemIds.get(random.nextInt(ITEMS))).start(from).end(from.plusHours(1)).build());
+            } else if (kind < 90) {
+                itemService.create(userId, ItemDto.builder().name("New").description("d").available(true).build());
+            } else {
+                userService.update(userId, new UserDto(null, null, "l2-user" + userIds.indexOf(userId) + "@mail"));
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,20 +9,32 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingBatchMode;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
+import ru.practicum.shareit.booking.dto.UserShortDto;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.idempotency.IdempotencyService;
+import ru.practicum.shareit.pagination.PageParams;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,16 +49,23 @@ class BookingControllerTest {
     @Autowired ObjectMapper mapper;
 
     @MockBean BookingService service;
+    @MockBean IdempotencyService idempotencyService;
 
     private final BookingResponseDto sample = BookingResponseDto.builder()
             .id(55L)
-            .item(Item.builder().id(99L).name("Drill").build())
-            .booker(User.builder().id(1L).name("John").build())
+            .item(new ItemShortDto(99L, "Drill"))
+            .booker(new UserShortDto(1L, "John"))
             .status(BookingStatus.WAITING)
             .start(LocalDateTime.now().plusDays(1))
             .end(LocalDateTime.now().plusDays(2))
             .build();
 
+    @BeforeEach
+    void passThroughIdempotency() {
+        when(idempotencyService.execute(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(5).get());
+    }
+
     @Test
     @DisplayName("POST /bookings ‑ create booking")
     void create() throws Exception {
@@ -77,6 +97,53 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is("APPROVED")));
     }
 
+    @Test
+    @DisplayName("PATCH /bookings/{id}?approved=true – период уже занят, 409")
+    void approve_conflict() throws Exception {
+        when(service.approve(1L, 55L, true)).thenThrow(new BookingConflictException("Вещь уже забронирована на эти даты"));
+
+        mvc.perform(patch(BASE_PATH + "/55")
+                        .header(HEADER, 1)
+                        .param("approved", "true"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", containsString("забронирована")));
+    }
+
+    @Test
+    @DisplayName("POST /bookings/batch?mode=PER_ITEM – результат по каждой вещи")
+    void createAll() throws Exception {
+        when(service.createAll(eq(1L), anyList(), eq(BookingBatchMode.PER_ITEM))).thenReturn(List.of(
+                BookingBatchResultDto.created(sample),
+                BookingBatchResultDto.failed(100L, BookingBatchResultDto.Outcome.UNAVAILABLE, "Товар недоступен")));
+
+        mvc.perform(post(BASE_PATH + "/batch")
+                        .header(HEADER, 1)
+                        .param("mode", "PER_ITEM")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"itemId\": 99}, {\"itemId\": 100}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].booking.id", is(55)))
+                .andExpect(jsonPath("$[1].outcome", is("UNAVAILABLE")));
+    }
+
+    @Test
+    @DisplayName("PATCH /bookings/bulk – результат по каждому id")
+    void decideAll() throws Exception {
+        when(service.decideAll(1L, List.of(55L, 56L), true)).thenReturn(List.of(
+                BookingDecisionDto.decided(sample.toBuilder().status(BookingStatus.APPROVED).build()),
+                BookingDecisionDto.failed(56L, BookingDecisionDto.Outcome.NOT_FOUND, "Booking not found")));
+
+        mvc.perform(patch(BASE_PATH + "/bulk")
+                        .header(HEADER, 1)
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[55, 56]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome", is("DECIDED")))
+                .andExpect(jsonPath("$[0].booking.status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].outcome", is("NOT_FOUND")));
+    }
+
     @Test
     @DisplayName("GET /bookings/{id} ‑ booker fetches booking")
     void getById() throws Exception {
@@ -91,7 +158,7 @@ class BookingControllerTest {
     @Test
     @DisplayName("GET /bookings?state=ALL ‑ booker list")
     void allByBooker() throws Exception {
-        when(service.getAllByBooker(1L, "ALL")).thenReturn(List.of(sample));
+        when(service.getAllByBooker(1L, "ALL", PageParams.of(0, 10))).thenReturn(List.of(sample));
 
         mvc.perform(get(BASE_PATH)
                         .header(HEADER, 1)
@@ -103,7 +170,7 @@ class BookingControllerTest {
     @Test
     @DisplayName("GET /bookings/owner?state=WAITING ‑ owner list")
     void allByOwner() throws Exception {
-        when(service.getAllByOwner(1L, "WAITING")).thenReturn(List.of(sample));
+        when(service.getAllByOwner(1L, "WAITING", PageParams.of(0, 10))).thenReturn(List.of(sample));
 
         mvc.perform(get(BASE_PATH + "/owner")
                         .header(HEADER, 1)
@@ -112,6 +179,65 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].status", is("WAITING")));
     }
 
+    @Test
+    @DisplayName("GET /bookings/owner – курсор afterStart/afterId передаётся в сервис")
+    void allByOwner_keyset() throws Exception {
+        LocalDateTime afterStart = LocalDateTime.of(2030, 1, 1, 12, 0);
+        when(service.getAllByOwner(1L, "ALL", new PageParams(0, 5, afterStart, 7L))).thenReturn(List.of(sample));
+
+        mvc.perform(get(BASE_PATH + "/owner")
+                        .header(HEADER, 1)
+                        .param("size", "5")
+                        .param("afterStart", "2030-01-01T12:00:00")
+                        .param("afterId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("GET /bookings – курсор без afterId → 400 BAD_REQUEST")
+    void allByBooker_halfCursor() throws Exception {
+        mvc.perform(get(BASE_PATH)
+                        .header(HEADER, 1)
+                        .param("afterStart", "2030-01-01T12:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /bookings/owner с Accept: application/x-ndjson – по объекту на строку")
+    void allByOwner_ndjson() throws Exception {
+        BookingResponseDto second = sample.toBuilder().id(56L).build();
+        doAnswer(invocation -> {
+            Consumer<BookingResponseDto> sink = invocation.getArgument(2);
+            sink.accept(sample);
+            sink.accept(second);
+            return null;
+        }).when(service).streamAllByOwner(eq(1L), eq("ALL"), any());
+
+        String body = mvc.perform(get(BASE_PATH + "/owner")
+                        .header(HEADER, 1)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.lines().map(line -> read(line).getId())).containsExactly(55L, 56L);
+    }
+
+    @Test
+    @DisplayName("GET /bookings/owner ndjson – 404 до начала выдачи, если владелец не найден")
+    void allByOwner_ndjson_notFound() throws Exception {
+        doThrow(new NoSuchElementException("Owner Not Found"))
+                .when(service).streamAllByOwner(eq(1L), eq("ALL"), any());
+
+        mvc.perform(get(BASE_PATH + "/owner")
+                        .header(HEADER, 1)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("Owner Not Found")));
+    }
+
     @DisplayName("PATCH /bookings/{id}?approved=false – бронирование отклонено")
     @Test
     void approve_reject() throws Exception {
@@ -130,7 +256,7 @@ class BookingControllerTest {
     @DisplayName("GET /bookings – 400 BAD_REQUEST при неизвестном state")
     @Test
     void listBooker_badState() throws Exception {
-        when(service.getAllByBooker(1L, "UNKNOWN"))
+        when(service.getAllByBooker(1L, "UNKNOWN", PageParams.of(0, 10)))
                 .thenThrow(new jakarta.validation.ValidationException());
 
         mvc.perform(get(BASE_PATH)
@@ -147,4 +273,30 @@ class BookingControllerTest {
         mvc.perform(get(BASE_PATH + "/123").header(HEADER, 1))
                 .andExpect(status().isNotFound());
     }
+
+    private BookingResponseDto read(String line) {
+        try {
+            return mapper.readValue(line, BookingResponseDto.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("POST /bookings ‑ Idempotency-Key передаётся в IdempotencyService вместе с пользователем")
+    void create_withIdempotencyKey() throws Exception {
+        BookingRequestDto request = BookingRequestDto.builder().itemId(99L)
+                .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build();
+        when(service.create(eq(1L), any())).thenReturn(sample);
+
+        mvc.perform(post(BASE_PATH)
+                        .header(HEADER, 1)
+                        .header(IdempotencyService.HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(55)));
+        verify(idempotencyService).execute(eq("POST /bookings"), eq(1L), eq("retry-1"), eq(request),
+                eq(BookingResponseDto.class), any());
+    }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,14 +10,25 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.comment.CommentDto;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.bulk.ItemImportService;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +43,8 @@ class ItemControllerTest {
     @Autowired ObjectMapper mapper;
 
     @MockBean ItemService service;
+    @MockBean ItemImportService importService;
+    @MockBean IdempotencyService idempotencyService;
 
     private final ItemDto sample = ItemDto.builder()
             .id(99L)
@@ -39,6 +53,12 @@ class ItemControllerTest {
             .available(true)
             .build();
 
+    @BeforeEach
+    void passThroughIdempotency() {
+        when(idempotencyService.execute(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(5).get());
+    }
+
     @Test
     @DisplayName("POST /items ‑ should create item and return 201")
     void create() throws Exception {
@@ -55,18 +75,19 @@ class ItemControllerTest {
     @Test
     @DisplayName("GET /items/{id} ‑ owner request returns full DTO")
     void getByIdOwner() throws Exception {
-        when(service.getById(1L, 99L)).thenReturn(sample);
+        when(service.getDetails(1L, 99L)).thenReturn(new ItemDetailCache.Entry(1L, sample));
 
         mvc.perform(get(BASE_PATH + "/99")
                         .header(HEADER, 1))
                 .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.OWNER_HEADER, "1"))
                 .andExpect(jsonPath("$.description", is("Powerful drill")));
     }
 
     @Test
     @DisplayName("GET /items/search ‑ should return search results")
     void search() throws Exception {
-        when(service.search("drill")).thenReturn(List.of(sample));
+        when(service.search("drill", PageParams.of(0, 10))).thenReturn(List.of(sample));
 
         mvc.perform(get(BASE_PATH + "/search")
                         .param("text", "drill"))
@@ -108,14 +129,119 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.description").value("new desc"));
     }
 
+    @DisplayName("GET /items/search – from/size передаются в сервис")
+    @Test
+    void search_paged() throws Exception {
+        when(service.search("drill", PageParams.of(20, 5))).thenReturn(List.of(sample));
+
+        mvc.perform(get(BASE_PATH + "/search")
+                        .param("text", "drill")
+                        .param("from", "20")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @DisplayName("GET /items/search с Accept: application/x-ndjson – потоковая выдача")
+    @Test
+    void search_ndjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ItemDto> sink = invocation.getArgument(1);
+            sink.accept(sample);
+            sink.accept(sample.toBuilder().id(100L).build());
+            return null;
+        }).when(service).streamSearch(eq("drill"), any());
+
+        mvc.perform(get(BASE_PATH + "/search")
+                        .param("text", "drill")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"id\":99")))
+                .andExpect(content().string(org.hamcrest.Matchers.endsWith("}\n")));
+        verify(service, never()).search(any(), any());
+    }
+
+    @DisplayName("GET /items/search ndjson с from/size – 400 одной ndjson-строкой, выдача не начинается")
+    @Test
+    void search_ndjson_rejectsPaging() throws Exception {
+        mvc.perform(get(BASE_PATH + "/search")
+                        .param("text", "drill")
+                        .param("size", "10")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("from/size")));
+        verify(service, never()).streamSearch(any(), any());
+    }
+
+    @DisplayName("GET /items/{id} с Accept: application/x-ndjson – 406, эндпоинт не потоковый")
+    @Test
+    void getById_ndjson_notAcceptable() throws Exception {
+        when(service.getDetails(1L, 99L)).thenReturn(new ItemDetailCache.Entry(1L, sample));
+
+        mvc.perform(get(BASE_PATH + "/99")
+                        .header(HEADER, 1)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotAcceptable());
+    }
+
     @DisplayName("GET /items/search – пустой результат при text=''")
     @Test
     void search_emptyText() throws Exception {
-        when(service.search("")).thenReturn(List.of());
+        when(service.search("", PageParams.of(0, 10))).thenReturn(List.of());
 
         mvc.perform(get(BASE_PATH + "/search").param("text", ""))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0)));
     }
-}
 
+    @Test
+    @DisplayName("POST /items/import ‑ JSON-массив передаётся в импорт, в ответе отчёт")
+    void importJson() throws Exception {
+        when(importService.importJson(eq(1L), any())).thenReturn(ItemImportReportDto.builder()
+                .received(2).imported(1).rejected(1)
+                .errors(List.of(new ItemImportReportDto.RowError(2, "name: must not be blank")))
+                .build());
+
+        mvc.perform(post(BASE_PATH + "/import")
+                        .header(HEADER, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"Drill\",\"description\":\"d\",\"available\":true},{}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)));
+        verify(service, never()).create(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /items/import ‑ CSV уходит в отдельный разбор")
+    void importCsv() throws Exception {
+        when(importService.importCsv(eq(1L), any())).thenReturn(ItemImportReportDto.builder()
+                .received(1).imported(1).errors(List.of()).build());
+
+        mvc.perform(post(BASE_PATH + "/import")
+                        .header(HEADER, 1)
+                        .contentType(ItemController.TEXT_CSV_VALUE)
+                        .content("name,description,available\nDrill,d,true\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(1)));
+        verify(importService, never()).importJson(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /items ‑ повтор с тем же Idempotency-Key получает сохранённый ответ")
+    void create_replayedKey() throws Exception {
+        doReturn(sample).when(idempotencyService)
+                .execute(eq("POST /items"), eq(1L), eq("retry-1"), any(), eq(ItemDto.class), any());
+
+        mvc.perform(post(BASE_PATH)
+                        .header(HEADER, 1)
+                        .header(IdempotencyService.HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(sample)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(99)));
+        verify(service, never()).create(any(), any());
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.request.ItemRequestController;
 import ru.practicum.shareit.request.ItemRequestDto;
 import ru.practicum.shareit.request.ItemRequestService;
@@ -63,6 +64,19 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    @DisplayName("GET /requests/all ‑ чужие запросы постранично")
+    void others() throws Exception {
+        when(service.getAll(1L, PageParams.of(10, 5))).thenReturn(List.of(sample));
+
+        mvc.perform(get(BASE_PATH + "/all")
+                        .header(HEADER, 1)
+                        .param("from", "10")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(3)));
+    }
+
     @Test
     @DisplayName("GET /requests/{id} ‑ get specific request")
     void one() throws Exception {
@@ -7,8 +7,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.*;
+import ru.practicum.shareit.comment.Comment;
+import ru.practicum.shareit.comment.CommentDto;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.OwnerItemView;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
@@ -110,6 +113,53 @@ class ItemMapperTest {
         verifyNoInteractions(bookingService);
     }
 
+    @Test
+    @DisplayName("toSimpleDtos() — комментарии всей страницы одним запросом")
+    void toSimpleDtos_loadsCommentsInOneQuery() {
+        Item other = item.toBuilder().id(11L).name("Saw").build();
+        User author = User.builder().id(5L).name("Author").build();
+        Comment first = Comment.builder().id(1L).text("good").author(author).item(item).created(now).build();
+        Comment second = Comment.builder().id(2L).text("ok").author(author).item(item).created(now.minusDays(1)).build();
+        when(commentRepository.findWithAuthorByItemIdIn(List.of(10L, 11L)))
+                .thenReturn(List.of(first, second));
+
+        List<ItemDto> dtos = mapper.toSimpleDtos(List.of(item, other));
+
+        assertThat(dtos).extracting(ItemDto::getId).containsExactly(10L, 11L);
+        assertThat(dtos.get(0).getComments()).extracting(CommentDto::getId).containsExactly(1L, 2L);
+        assertThat(dtos.get(1).getComments()).isEmpty();
+        verify(commentRepository, never()).findByItemIdOrderByCreatedDesc(any());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    @DisplayName("toSimpleDtos() — пустая страница не ходит в базу")
+    void toSimpleDtos_empty() {
+        assertThat(mapper.toSimpleDtos(List.of())).isEmpty();
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    @DisplayName("toOwnerDtos() — берёт last/next booking из проекции, без запросов к бронированиям")
+    void toOwnerDtos_ok() {
+        OwnerItemView view = mock(OwnerItemView.class);
+        when(view.getId()).thenReturn(10L);
+        when(view.getName()).thenReturn("Drill");
+        when(view.getLastBooking()).thenReturn(past.getEnd());
+        when(view.getNextBooking()).thenReturn(future.getStart());
+        when(commentRepository.findWithAuthorByItemIdIn(List.of(10L))).thenReturn(List.of());
+
+        List<ItemDto> dtos = mapper.toOwnerDtos(List.of(view));
+
+        assertThat(dtos).singleElement().satisfies(dto -> {
+            assertThat(dto.getName()).isEqualTo("Drill");
+            assertThat(dto.getLastBooking()).isEqualTo(past.getEnd());
+            assertThat(dto.getNextBooking()).isEqualTo(future.getStart());
+            assertThat(dto.getComments()).isEmpty();
+        });
+        verifyNoInteractions(bookingService);
+    }
+
     @Test
     @DisplayName("toModel() — маппит request, когда requestId указан")
     void toModel_withRequest() {
@@ -7,11 +7,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.booking.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto.Outcome;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
+import ru.practicum.shareit.booking.dto.UserShortDto;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -19,6 +28,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,9 +43,13 @@ class BookingServiceImplTest {
     ItemRepository itemRepository;
     @Mock
     UserRepository userRepository;
+    @Mock
+    ItemDetailCache itemDetailCache;
     @InjectMocks
     BookingServiceImpl bookingService;
 
+    private static final PageParams PAGE = PageParams.of(0, 10);
+
     private User owner;
     private User booker;
     private Item item;
@@ -88,6 +102,7 @@ class BookingServiceImplTest {
                         b.getStatus() == BookingStatus.WAITING));
         assertThat(resp.getId()).isEqualTo(waitingBooking.getId());
         assertThat(resp.getStatus()).isEqualTo(BookingStatus.WAITING);
+        then(itemDetailCache).should().evict(item.getId());
     }
 
     @Test
@@ -107,46 +122,239 @@ class BookingServiceImplTest {
         then(bookingRepository).shouldHaveNoInteractions();
     }
 
+    @Nested
+    class CreateAll {
+        private Item unavailable;
+        private List<BookingRequestDto> cart;
+
+        @BeforeEach
+        void setUp() {
+            unavailable = item.toBuilder().id(11L).available(false).build();
+            cart = List.of(request(item.getId()), request(unavailable.getId()), request(12L));
+            given(userRepository.findById(booker.getId())).willReturn(Optional.of(booker));
+            given(itemRepository.findByIdIn(List.of(item.getId(), unavailable.getId(), 12L)))
+                    .willReturn(List.of(item, unavailable));
+        }
+
+        @Test
+        void createAll_perItem_insertsValidOnesInOneBatch() {
+            given(bookingRepository.saveAll(anyList())).willAnswer(inv -> {
+                List<Booking> bookings = inv.getArgument(0);
+                bookings.forEach(b -> b.setId(500L));
+                return bookings;
+            });
+
+            List<BookingBatchResultDto> results =
+                    bookingService.createAll(booker.getId(), cart, BookingBatchMode.PER_ITEM);
+
+            assertThat(results).extracting(BookingBatchResultDto::getOutcome).containsExactly(
+                    BookingBatchResultDto.Outcome.CREATED, BookingBatchResultDto.Outcome.UNAVAILABLE,
+                    BookingBatchResultDto.Outcome.NOT_FOUND);
+            assertThat(results.get(0).getBooking().getId()).isEqualTo(500L);
+            then(bookingRepository).should().saveAll(argThat((List<Booking> bookings) -> bookings.size() == 1));
+            then(itemRepository).should(never()).findById(any());
+        }
+
+        @Test
+        void createAll_allOrNothing_rejectsWholeCart() {
+            assertThatThrownBy(() -> bookingService.createAll(booker.getId(), cart, BookingBatchMode.ALL_OR_NOTHING))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("Товар недоступен");
+
+            then(bookingRepository).shouldHaveNoInteractions();
+        }
+
+        private BookingRequestDto request(Long itemId) {
+            return BookingRequestDto.builder()
+                    .itemId(itemId)
+                    .start(waitingBooking.getStart())
+                    .end(waitingBooking.getEnd())
+                    .build();
+        }
+    }
+
     @Nested
     class Approve {
         @Test
         void approve_shouldSetApproved_whenOwnerApproves() {
-            given(bookingRepository.findById(waitingBooking.getId()))
-                    .willReturn(Optional.of(waitingBooking));
-            given(bookingRepository.save(waitingBooking)).willReturn(waitingBooking);
-
-            try (MockedStatic<BookingMapper> mapperMock = mockStatic(BookingMapper.class)) {
-                BookingResponseDto approvedDto = BookingResponseDto.builder()
-                        .id(waitingBooking.getId())
-                        .item(item)
-                        .booker(booker)
-                        .start(waitingBooking.getStart())
-                        .end(waitingBooking.getEnd())
-                        .status(BookingStatus.APPROVED)
-                        .build();
-
-                mapperMock.when(() -> BookingMapper.toDto(waitingBooking))
-                        .thenReturn(approvedDto);
-
-                BookingResponseDto dto = bookingService.approve(
-                        owner.getId(), waitingBooking.getId(), true);
-
-                then(bookingRepository).should().save(waitingBooking);
-                assertThat(dto.getStatus()).isEqualTo(BookingStatus.APPROVED);
-            }
+            BookingResponseDto approvedDto = BookingMapper.toDto(waitingBooking).toBuilder()
+                    .status(BookingStatus.APPROVED)
+                    .build();
+            given(itemRepository.lockByBookingId(waitingBooking.getId(), owner.getId())).willReturn(Optional.of(item.getId()));
+            given(bookingRepository.approveIfWaiting(waitingBooking.getId(), owner.getId())).willReturn(1);
+            given(bookingRepository.findViewById(waitingBooking.getId())).willReturn(Optional.of(approvedDto));
+
+            BookingResponseDto dto = bookingService.approve(owner.getId(), waitingBooking.getId(), true);
+
+            assertThat(dto.getStatus()).isEqualTo(BookingStatus.APPROVED);
+            then(bookingRepository).should(never()).findById(any());
+            then(bookingRepository).should(never()).save(any());
+            then(itemDetailCache).should().evict(item.getId());
         }
 
         @Test
         void approve_shouldThrow_whenUserNotOwner() {
-            given(bookingRepository.findById(waitingBooking.getId()))
-                    .willReturn(Optional.of(waitingBooking));
+            given(itemRepository.lockByBookingId(waitingBooking.getId(), booker.getId())).willReturn(Optional.empty());
+            given(bookingRepository.findById(waitingBooking.getId())).willReturn(Optional.of(waitingBooking));
 
             assertThatThrownBy(() ->
                     bookingService.approve(booker.getId(), waitingBooking.getId(), true))
                     .isInstanceOf(SecurityException.class)
                     .hasMessageContaining("owner");
 
-            then(bookingRepository).should(never()).save(any());
+            then(bookingRepository).should(never()).approveIfWaiting(any(), any());
+
+            then(itemDetailCache).shouldHaveNoInteractions();
+        }
+
+        @Test
+        void approve_shouldThrowNotFound_whenBookingMissing() {
+            given(itemRepository.lockByBookingId(999L, owner.getId())).willReturn(Optional.empty());
+            given(bookingRepository.findById(999L)).willReturn(Optional.empty());
+
+            assertThatThrownBy(() -> bookingService.approve(owner.getId(), 999L, true))
+                    .isInstanceOf(NoSuchElementException.class);
+        }
+
+        @Test
+        void approve_shouldThrowConflict_whenOverlapsApprovedBooking() {
+            given(itemRepository.lockByBookingId(waitingBooking.getId(), owner.getId())).willReturn(Optional.of(item.getId()));
+            given(bookingRepository.approveIfWaiting(waitingBooking.getId(), owner.getId())).willReturn(0);
+            given(bookingRepository.findById(waitingBooking.getId())).willReturn(Optional.of(waitingBooking));
+
+            assertThatThrownBy(() ->
+                    bookingService.approve(owner.getId(), waitingBooking.getId(), true))
+                    .isInstanceOf(BookingConflictException.class)
+                    .hasMessageContaining("забронирована");
+        }
+
+        @Test
+        void approve_shouldThrowConflict_whenOverlapConstraintViolated() {
+            given(itemRepository.lockByBookingId(waitingBooking.getId(), owner.getId())).willReturn(Optional.of(item.getId()));
+            given(bookingRepository.approveIfWaiting(waitingBooking.getId(), owner.getId()))
+                    .willThrow(new DataIntegrityViolationException("could not execute statement", new RuntimeException(
+                            "ERROR: conflicting key value violates exclusion constraint \"bookings_no_overlap\"")));
+
+            assertThatThrownBy(() ->
+                    bookingService.approve(owner.getId(), waitingBooking.getId(), true))
+                    .isInstanceOf(BookingConflictException.class)
+                    .hasMessageContaining("забронирована");
+            then(itemDetailCache).shouldHaveNoInteractions();
+        }
+
+        @Test
+        void approve_shouldThrowConflict_whenAlreadyDecided() {
+            waitingBooking.setStatus(BookingStatus.APPROVED);
+            given(bookingRepository.rejectIfWaiting(waitingBooking.getId(), owner.getId())).willReturn(0);
+            given(bookingRepository.findById(waitingBooking.getId())).willReturn(Optional.of(waitingBooking));
+
+            assertThatThrownBy(() ->
+                    bookingService.approve(owner.getId(), waitingBooking.getId(), false))
+                    .isInstanceOf(BookingConflictException.class)
+                    .hasMessageContaining("APPROVED");
+        }
+
+        @Test
+        void reject_shouldThrow_whenUserNotOwner() {
+            given(bookingRepository.rejectIfWaiting(waitingBooking.getId(), booker.getId())).willReturn(0);
+            given(bookingRepository.findById(waitingBooking.getId())).willReturn(Optional.of(waitingBooking));
+
+            assertThatThrownBy(() ->
+                    bookingService.approve(booker.getId(), waitingBooking.getId(), false))
+                    .isInstanceOf(SecurityException.class);
+        }
+
+        @Test
+        void reject_shouldNotLockItem() {
+            BookingResponseDto rejectedDto = BookingMapper.toDto(waitingBooking).toBuilder()
+                    .status(BookingStatus.REJECTED)
+                    .build();
+            given(bookingRepository.rejectIfWaiting(waitingBooking.getId(), owner.getId())).willReturn(1);
+            given(bookingRepository.findViewById(waitingBooking.getId())).willReturn(Optional.of(rejectedDto));
+
+            BookingResponseDto dto = bookingService.approve(owner.getId(), waitingBooking.getId(), false);
+
+            assertThat(dto.getStatus()).isEqualTo(BookingStatus.REJECTED);
+            then(itemRepository).shouldHaveNoInteractions();
+        }
+    }
+
+    @Nested
+    class DecideAll {
+        @Test
+        void decideAll_reportsEachIdAndUpdatesOnlyEligible() {
+            Booking approved = booking(101L, item, 0, BookingStatus.APPROVED);
+            Booking stranger = booking(102L, item.toBuilder().id(11L).owner(booker).build(), 0, BookingStatus.WAITING);
+            given(bookingRepository.findAllByIdInForUpdate(List.of(100L, 101L, 102L, 103L)))
+                    .willReturn(List.of(waitingBooking, approved, stranger));
+            given(bookingRepository.decideAllIfWaiting(List.of(100L), owner.getId(), BookingStatus.REJECTED)).willReturn(1);
+
+            List<BookingDecisionDto> results =
+                    bookingService.decideAll(owner.getId(), List.of(100L, 101L, 102L, 103L, 100L), false);
+
+            assertThat(results).extracting(BookingDecisionDto::getBookingId).containsExactly(100L, 101L, 102L, 103L);
+            assertThat(results).extracting(BookingDecisionDto::getOutcome).containsExactly(Outcome.DECIDED,
+                    Outcome.CONFLICT, Outcome.FORBIDDEN, Outcome.NOT_FOUND);
+            assertThat(results.get(0).getBooking().getStatus()).isEqualTo(BookingStatus.REJECTED);
+            then(bookingRepository).should()
+                    .decideAllIfWaiting(List.of(100L), owner.getId(), BookingStatus.REJECTED);
+            then(itemRepository).shouldHaveNoInteractions();
+        }
+
+        @Test
+        void decideAll_approvesOverlappingBookingsInStartOrder() {
+            Booking later = booking(99L, item, 12, BookingStatus.WAITING);
+            Booking taken = booking(98L, item, 120, BookingStatus.WAITING);
+            given(bookingRepository.findAllByIdInForUpdate(List.of(99L, 100L, 98L)))
+                    .willReturn(List.of(taken, later, waitingBooking));
+            given(bookingRepository.findApprovedSlots(any(), any(), any()))
+                    .willReturn(List.of(new BookingSlot(item.getId(), taken.getStart(), taken.getEnd())));
+            given(bookingRepository.decideAllIfWaiting(List.of(100L), owner.getId(), BookingStatus.APPROVED)).willReturn(1);
+
+            List<BookingDecisionDto> results = bookingService.decideAll(owner.getId(), List.of(99L, 100L, 98L), true);
+
+            assertThat(results).extracting(BookingDecisionDto::getOutcome)
+                    .containsExactly(Outcome.CONFLICT, Outcome.DECIDED, Outcome.CONFLICT);
+            then(itemRepository).should().lockAllByBookingIdIn(List.of(99L, 100L, 98L), owner.getId());
+            then(bookingRepository).should()
+                    .decideAllIfWaiting(List.of(100L), owner.getId(), BookingStatus.APPROVED);
+        }
+
+        @Test
+        void decideAll_shouldThrow_whenEmpty() {
+            assertThatThrownBy(() -> bookingService.decideAll(owner.getId(), List.of(), true))
+                    .isInstanceOf(ValidationException.class);
+        }
+
+        @Test
+        void decideAll_shouldThrow_whenBatchTooLarge() {
+            List<Long> ids = LongStream.rangeClosed(1, BookingServiceImpl.MAX_BATCH_SIZE + 1).boxed().toList();
+
+            assertThatThrownBy(() -> bookingService.decideAll(owner.getId(), ids, false))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining(String.valueOf(BookingServiceImpl.MAX_BATCH_SIZE));
+            then(bookingRepository).shouldHaveNoInteractions();
+        }
+
+        @Test
+        void decideAll_shouldThrowConflict_whenNotAllRowsUpdated() {
+            given(bookingRepository.findAllByIdInForUpdate(List.of(100L))).willReturn(List.of(waitingBooking));
+            given(bookingRepository.decideAllIfWaiting(List.of(100L), owner.getId(), BookingStatus.REJECTED)).willReturn(0);
+
+            assertThatThrownBy(() -> bookingService.decideAll(owner.getId(), List.of(100L), false))
+                    .isInstanceOf(BookingConflictException.class);
+            then(itemDetailCache).shouldHaveNoInteractions();
+        }
+
+        private Booking booking(Long id, Item item, int shiftHours, BookingStatus status) {
+            return Booking.builder()
+                    .id(id)
+                    .item(item)
+                    .booker(booker)
+                    .start(waitingBooking.getStart().plusHours(shiftHours))
+                    .end(waitingBooking.getEnd().plusHours(shiftHours))
+                    .status(status)
+                    .build();
         }
     }
 
@@ -171,33 +379,33 @@ class BookingServiceImplTest {
     }
 
     @Test
-    void getAllByBooker_allState_returnsSortedList() {
-        given(bookingRepository.findByBookerIdOrderByStartDesc(booker.getId()))
-                .willReturn(List.of(waitingBooking));
+    void getAllByBooker_allState_returnsView() {
+        BookingResponseDto view = BookingMapper.toDto(waitingBooking);
+        given(bookingRepository.findView(any(), isNull(), isNull(), eq(PAGE.pageable())))
+                .willReturn(List.of(view));
 
-        var list = bookingService.getAllByBooker(booker.getId(), "ALL");
+        var list = bookingService.getAllByBooker(booker.getId(), "ALL", PAGE);
 
-        assertThat(list).hasSize(1)
-                .first()
-                .extracting("id")
-                .isEqualTo(waitingBooking.getId());
+        assertThat(list).containsExactly(view);
+        assertThat(list.get(0).getItem()).isEqualTo(new ItemShortDto(item.getId(), "Дрель"));
     }
 
     @Test
     void getAllByBooker_unknownState_throws() {
-        assertThatThrownBy(() -> bookingService.getAllByBooker(booker.getId(), "SMTH"))
+        assertThatThrownBy(() -> bookingService.getAllByBooker(booker.getId(), "SMTH", PAGE))
                 .isInstanceOf(ValidationException.class);
+        then(bookingRepository).shouldHaveNoInteractions();
     }
 
     @Test
-    void getAllByOwner_waitingState_ok() {
+    void getAllByOwner_keysetCursorPassedToQuery() {
+        LocalDateTime afterStart = LocalDateTime.now();
+        PageParams page = new PageParams(20, 5, afterStart, 7L);
         given(userRepository.findById(owner.getId())).willReturn(Optional.of(owner));
-        given(bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(owner.getId(), BookingStatus.WAITING))
-                .willReturn(List.of(waitingBooking));
 
-        var list = bookingService.getAllByOwner(owner.getId(), "waiting");
+        bookingService.getAllByOwner(owner.getId(), "waiting", page);
 
-        assertThat(list).hasSize(1);
+        then(bookingRepository).should().findView(any(), eq(afterStart), eq(7L), eq(PageParams.of(0, 5).pageable()));
     }
 
     @Test
@@ -236,124 +444,66 @@ class BookingServiceImplTest {
 
     @Nested
     class FilterByState {
-
-        @BeforeEach
-        void mockOwner() {
-            lenient()
-                    .when(userRepository.findById(owner.getId()))
-                    .thenReturn(Optional.of(owner));
-        }
-
-        @Test
-        void booker_current_invokesProperRepo() {
-            given(bookingRepository
-                    .findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(eq(booker.getId()), any(), any()))
-                    .willReturn(List.of(waitingBooking));
-
-            bookingService.getAllByBooker(booker.getId(), "current");
-
-            then(bookingRepository).should()
-                    .findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(eq(booker.getId()), any(), any());
-        }
+        @Captor
+        ArgumentCaptor<BookingFilter> filter;
 
         @Test
-        void booker_past_invokesProperRepo() {
-            given(bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(eq(booker.getId()), any()))
-                    .willReturn(List.of(waitingBooking));
+        void booker_current_startedAndNotEnded() {
+            BookingFilter f = bookerFilter("current");
 
-            bookingService.getAllByBooker(booker.getId(), "past");
-
-            then(bookingRepository).should()
-                    .findByBookerIdAndEndBeforeOrderByStartDesc(eq(booker.getId()), any());
-        }
-
-        @Test
-        void booker_future_invokesProperRepo() {
-            given(bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(eq(booker.getId()), any()))
-                    .willReturn(List.of(waitingBooking));
-
-            bookingService.getAllByBooker(booker.getId(), "future");
-
-            then(bookingRepository).should()
-                    .findByBookerIdAndStartAfterOrderByStartDesc(eq(booker.getId()), any());
-        }
-
-        @Test
-        void booker_waiting_invokesProperRepo() {
-            given(bookingRepository.findByBookerIdAndStatusOrderByStartDesc(booker.getId(), BookingStatus.WAITING))
-                    .willReturn(List.of(waitingBooking));
-
-            bookingService.getAllByBooker(booker.getId(), "waiting");
-
-            then(bookingRepository).should()
-                    .findByBookerIdAndStatusOrderByStartDesc(booker.getId(), BookingStatus.WAITING);
+            assertThat(f.bookerId()).isEqualTo(booker.getId());
+            assertThat(f.ownerId()).isNull();
+            assertThat(f.startBefore()).isNotNull().isEqualTo(f.endAfter());
+            assertThat(f.status()).isNull();
         }
 
         @Test
-        void booker_rejected_invokesProperRepo() {
-            given(bookingRepository.findByBookerIdAndStatusOrderByStartDesc(booker.getId(), BookingStatus.REJECTED))
-                    .willReturn(List.of());
+        void booker_past_endedBeforeNow() {
+            BookingFilter f = bookerFilter("past");
 
-            bookingService.getAllByBooker(booker.getId(), "rejected");
-
-            then(bookingRepository).should()
-                    .findByBookerIdAndStatusOrderByStartDesc(booker.getId(), BookingStatus.REJECTED);
+            assertThat(f.endBefore()).isNotNull();
+            assertThat(f.startBefore()).isNull();
+            assertThat(f.startAfter()).isNull();
         }
 
         @Test
-        void owner_current_invokesProperRepo() {
-            given(bookingRepository
-                    .findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(eq(owner.getId()), any(), any()))
-                    .willReturn(List.of(waitingBooking));
+        void booker_future_startsAfterNow() {
+            BookingFilter f = bookerFilter("FUTURE");
 
-            bookingService.getAllByOwner(owner.getId(), "current");
-
-            then(bookingRepository).should()
-                    .findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(eq(owner.getId()), any(), any());
+            assertThat(f.startAfter()).isNotNull();
+            assertThat(f.endBefore()).isNull();
         }
 
         @Test
-        void owner_past_invokesProperRepo() {
-            given(bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(eq(owner.getId()), any()))
-                    .willReturn(List.of(waitingBooking));
-
-            bookingService.getAllByOwner(owner.getId(), "past");
-
-            then(bookingRepository).should()
-                    .findByItemOwnerIdAndEndBeforeOrderByStartDesc(eq(owner.getId()), any());
+        void booker_waitingAndRejected_filterByStatus() {
+            assertThat(bookerFilter("waiting").status()).isEqualTo(BookingStatus.WAITING);
+            assertThat(bookerFilter("rejected").status()).isEqualTo(BookingStatus.REJECTED);
         }
 
         @Test
-        void owner_future_invokesProperRepo() {
-            given(bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(eq(owner.getId()), any()))
-                    .willReturn(List.of(waitingBooking));
+        void owner_all_onlyOwnerCondition() {
+            given(userRepository.findById(owner.getId())).willReturn(Optional.of(owner));
 
-            bookingService.getAllByOwner(owner.getId(), "future");
+            bookingService.getAllByOwner(owner.getId(), "all", PAGE);
 
-            then(bookingRepository).should()
-                    .findByItemOwnerIdAndStartAfterOrderByStartDesc(eq(owner.getId()), any());
+            then(bookingRepository).should().findView(filter.capture(), any(), any(), any());
+            assertThat(filter.getValue())
+                    .isEqualTo(new BookingFilter(null, owner.getId(), null, null, null, null, null));
         }
 
         @Test
-        void owner_waiting_invokesProperRepo() {
-            given(bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(owner.getId(), BookingStatus.WAITING))
-                    .willReturn(List.of(waitingBooking));
-
-            bookingService.getAllByOwner(owner.getId(), "waiting");
+        void owner_unknownOwner_throwsBeforeQuery() {
+            given(userRepository.findById(owner.getId())).willReturn(Optional.empty());
 
-            then(bookingRepository).should()
-                    .findByItemOwnerIdAndStatusOrderByStartDesc(owner.getId(), BookingStatus.WAITING);
+            assertThatThrownBy(() -> bookingService.getAllByOwner(owner.getId(), "all", PAGE))
+                    .isInstanceOf(NoSuchElementException.class);
+            then(bookingRepository).shouldHaveNoInteractions();
         }
 
-        @Test
-        void owner_rejected_invokesProperRepo() {
-            given(bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(owner.getId(), BookingStatus.REJECTED))
-                    .willReturn(List.of());
-
-            bookingService.getAllByOwner(owner.getId(), "rejected");
-
-            then(bookingRepository).should()
-                    .findByItemOwnerIdAndStatusOrderByStartDesc(owner.getId(), BookingStatus.REJECTED);
+        private BookingFilter bookerFilter(String state) {
+            bookingService.getAllByBooker(booker.getId(), state, PAGE);
+            then(bookingRepository).should(atLeastOnce()).findView(filter.capture(), any(), any(), any());
+            return filter.getValue();
         }
     }
 }
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.InvalidationEvent;
+import ru.practicum.shareit.cache.InvalidationListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CacheInvalidationBusTest {
+    private SimpleMeterRegistry registry;
+    private CacheInvalidationBus bus;
+    private final List<Long> evicted = new ArrayList<>();
+    private int evictAllCalls;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        bus = new CacheInvalidationBus(null, null, registry, Duration.ofMillis(100));
+        bus.subscribe(InvalidationEvent.Type.ITEM, new InvalidationListener() {
+            @Override
+            public void evict(Collection<Long> ids) {
+                evicted.addAll(ids);
+            }
+
+            @Override
+            public void evictAll() {
+                evictAllCalls++;
+            }
+        });
+    }
+
+    @Test
+    void encodeDecode_roundTrip() {
+        InvalidationEvent event = new InvalidationEvent(InvalidationEvent.Type.USER, List.of(1L, 22L), "n1", 42L);
+
+        assertThat(InvalidationEvent.decode(event.encode())).isEqualTo(event);
+        assertThat(event.encode()).isEqualTo("USER|1,22|n1|42");
+    }
+
+    @Test
+    void decode_rejectsGarbage() {
+        assertThatThrownBy(() -> InvalidationEvent.decode("ITEM|1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void publish_evictsLocallyAndAgainAfterTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.publish(InvalidationEvent.Type.ITEM, List.of(5L));
+            assertThat(evicted).containsExactly(5L);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(evicted).containsExactly(5L, 5L);
+    }
+
+    @Test
+    void publish_withoutLocalSubscribers_evictsNothing() {
+        bus.publish(InvalidationEvent.Type.USER, List.of(1L));
+
+        assertThat(evicted).isEmpty();
+    }
+
+    @Test
+    void dispatch_foreignEventEvictsAndRecordsLag() {
+        bus.dispatch(new InvalidationEvent(InvalidationEvent.Type.ITEM, List.of(7L, 8L), "other",
+                System.currentTimeMillis() - 30));
+
+        assertThat(evicted).containsExactly(7L, 8L);
+        assertThat(registry.get("cache.invalidation.received").counter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.invalidation.lag").timer().max(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(30);
+    }
+
+    @Test
+    void dispatch_ownEventIsSkipped() {
+        bus.dispatch(new InvalidationEvent(InvalidationEvent.Type.ITEM, List.of(7L), bus.node(),
+                System.currentTimeMillis()));
+
+        assertThat(evicted).isEmpty();
+        assertThat(evictAllCalls).isZero();
+    }
+}
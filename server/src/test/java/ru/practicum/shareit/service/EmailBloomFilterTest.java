@@ -0,0 +1,54 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.EmailBloomFilter;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EmailBloomFilterTest {
+
+    @Test
+    @DisplayName("добавленные адреса всегда найдены")
+    void noFalseNegatives() {
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@mail.com"));
+
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("user" + i + "@mail.com"));
+    }
+
+    @Test
+    @DisplayName("доля ложных срабатываний около заданной")
+    void falsePositiveRate() {
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@mail.com"));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("stranger" + i + "@mail.com"))
+                .count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    @DisplayName("rebuild() забывает старые адреса")
+    void rebuild() {
+        EmailBloomFilter filter = new EmailBloomFilter(1_000, 0.01);
+        filter.put("old@mail.com");
+
+        long loaded = filter.rebuild(Stream.of("a@mail.com", "b@mail.com"));
+
+        assertThat(loaded).isEqualTo(2);
+        assertThat(filter.mightContain("a@mail.com")).isTrue();
+        assertThat(filter.mightContain("old@mail.com")).isFalse();
+    }
+
+    @Test
+    void invalidParameters() {
+        assertThatThrownBy(() -> new EmailBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new EmailBloomFilter(1_000, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
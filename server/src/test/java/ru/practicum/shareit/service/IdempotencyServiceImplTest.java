@@ -0,0 +1,111 @@
+package ru.practicum.shareit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.idempotency.IdempotencyRecord;
+import ru.practicum.shareit.idempotency.IdempotencyRepository;
+import ru.practicum.shareit.idempotency.IdempotencyServiceImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+    @Mock private IdempotencyRepository repository;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private IdempotencyServiceImpl service;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ItemDto request = ItemDto.builder().name("Drill").description("d").available(true).build();
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyServiceImpl(repository, transactionTemplate, new ObjectMapper(),
+                Duration.ofHours(1), 2);
+    }
+
+    @Test
+    void withoutKey_runsActionDirectly() {
+        ItemDto result = service.execute("POST /items", 1L, null, request, ItemDto.class, this::created);
+
+        assertThat(result.getId()).isEqualTo(10L);
+        then(repository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void repeatedKey_servedFromMemoryWithoutTable() {
+        given(repository.findById("POST /items:1:k")).willReturn(Optional.empty());
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(repository.saveAndFlush(any())).willAnswer(invocation -> invocation.getArgument(0));
+
+        ItemDto first = service.execute("POST /items", 1L, "k", request, ItemDto.class, this::created);
+        ItemDto second = service.execute("POST /items", 1L, "k", request, ItemDto.class, this::created);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(calls).hasValue(1);
+        then(repository).should(times(1)).findById(any());
+    }
+
+    @Test
+    void evictedKey_isReadFromTable() {
+        for (String key : new String[]{"a", "b", "c"}) {
+            given(repository.findById("POST /items:1:" + key)).willReturn(Optional.of(IdempotencyRecord.builder()
+                    .id("POST /items:1:" + key)
+                    .fingerprint(fingerprintOf(key))
+                    .response("{\"id\":10}")
+                    .created(LocalDateTime.now())
+                    .build()));
+        }
+
+        service.execute("POST /items", 1L, "a", "a", ItemDto.class, this::created);
+        service.execute("POST /items", 1L, "b", "b", ItemDto.class, this::created);
+        service.execute("POST /items", 1L, "c", "c", ItemDto.class, this::created);
+        service.execute("POST /items", 1L, "a", "a", ItemDto.class, this::created);
+
+        assertThat(calls).hasValue(0);
+        then(repository).should(times(2)).findById("POST /items:1:a");
+        then(transactionTemplate).should(never()).execute(any());
+    }
+
+    @Test
+    void tooLongKey_isRejected() {
+        assertThatThrownBy(() -> service.execute("POST /items", 1L, "k".repeat(101), request, ItemDto.class,
+                this::created))
+                .isInstanceOf(ValidationException.class);
+        assertThat(calls).hasValue(0);
+    }
+
+    private ItemDto created() {
+        calls.incrementAndGet();
+        return request.toBuilder().id(10L).build();
+    }
+
+    private static String fingerprintOf(String body) {
+        try {
+            byte[] json = new ObjectMapper().writeValueAsBytes(body);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
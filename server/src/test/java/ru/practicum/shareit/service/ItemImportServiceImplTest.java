@@ -0,0 +1,166 @@
+package ru.practicum.shareit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.bulk.ItemBulkWriter;
+import ru.practicum.shareit.item.bulk.ItemImportServiceImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImportServiceImplTest {
+    @Mock private UserRepository userRepository;
+    @Mock private ItemRequestRepository requestRepository;
+    @Mock private ItemBulkWriter writer;
+
+    private ItemImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ItemImportServiceImpl(userRepository, requestRepository, writer, new ObjectMapper());
+    }
+
+    @Test
+    void importJson_writesValidRowsAndReportsInvalid() throws Exception {
+        given(userRepository.existsById(1L)).willReturn(true);
+
+        ItemImportReportDto report = service.importJson(1L, body("""
+                [{"name":"Drill","description":"d","available":true},
+                 {"name":" ","description":"d","available":true},
+                 {"name":"Saw","description":"s","available":"maybe"},
+                 {"name":"Saw","description":"s","available":false}]
+                """));
+
+        assertThat(report.getReceived()).isEqualTo(4);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ItemImportReportDto.RowError::getRow).containsExactly(2L, 3L);
+        assertThat(report.getErrors().get(0).getError()).startsWith("name");
+        ArgumentCaptor<List<ItemDto>> written = ArgumentCaptor.captor();
+        then(writer).should().write(eq(1L), written.capture());
+        assertThat(written.getValue()).extracting(ItemDto::getName).containsExactly("Drill", "Saw");
+    }
+
+    @Test
+    void importJson_tooLongName_isReportedNotWritten() throws Exception {
+        given(userRepository.existsById(1L)).willReturn(true);
+        String longName = "x".repeat(256);
+
+        ItemImportReportDto report = service.importJson(1L, body(
+                "[{\"name\":\"" + longName + "\",\"description\":\"d\",\"available\":true},"
+                        + "{\"name\":\"" + longName.substring(1) + "\",\"description\":\"d\",\"available\":true}]"));
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement()
+                .satisfies(e -> assertThat(e.getRow()).isEqualTo(1L))
+                .satisfies(e -> assertThat(e.getError()).startsWith("name"));
+        ArgumentCaptor<List<ItemDto>> written = ArgumentCaptor.captor();
+        then(writer).should().write(eq(1L), written.capture());
+        assertThat(written.getValue()).extracting(ItemDto::getName).containsExactly(longName.substring(1));
+    }
+
+    @Test
+    void importJson_notArray_throwsValidation() {
+        given(userRepository.existsById(1L)).willReturn(true);
+
+        assertThatThrownBy(() -> service.importJson(1L, body("{\"name\":\"Drill\"}")))
+                .isInstanceOf(ValidationException.class);
+        then(writer).should(never()).write(any(), any());
+    }
+
+    @Test
+    void importJson_truncatedDocument_throwsValidation() {
+        given(userRepository.existsById(1L)).willReturn(true);
+
+        assertThatThrownBy(() -> service.importJson(1L, body("[{\"name\":\"Drill\",")))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageStartingWith("Некорректный JSON");
+    }
+
+    @Test
+    void importJson_unknownOwner_throwsNotFound() {
+        given(userRepository.existsById(9L)).willReturn(false);
+
+        assertThatThrownBy(() -> service.importJson(9L, body("[]")))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void importCsv_parsesQuotedFieldsAndChecksRequests() throws Exception {
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(requestRepository.findAllById(Set.of(5L, 6L)))
+                .willReturn(List.of(ItemRequest.builder().id(5L).build()));
+
+        ItemImportReportDto report = service.importCsv(1L, body("""
+                Name,Description,Available,RequestId
+                "Дрель, ударная","Говорят ""лучшая""
+                в городе",true,5
+                Saw,s,yes,
+                Saw,s,false,6
+                Hammer,h,FALSE,
+                """));
+
+        assertThat(report.getReceived()).isEqualTo(4);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ItemImportReportDto.RowError::getRow).containsExactly(2L, 3L);
+        ArgumentCaptor<List<ItemDto>> written = ArgumentCaptor.captor();
+        then(writer).should().write(eq(1L), written.capture());
+        assertThat(written.getValue().get(0).getName()).isEqualTo("Дрель, ударная");
+        assertThat(written.getValue().get(0).getDescription()).isEqualTo("Говорят \"лучшая\"\nв городе");
+        assertThat(written.getValue().get(0).getRequestId()).isEqualTo(5L);
+        assertThat(written.getValue().get(1).getAvailable()).isFalse();
+    }
+
+    @Test
+    void importCsv_errorCapKeepsLowestRows_includingUnknownRequests() throws Exception {
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(requestRepository.findAllById(Set.of(9L))).willReturn(List.of());
+        StringBuilder csv = new StringBuilder("name,description,available,requestId\nDrill,d,true,9\n");
+        for (int i = 0; i < 150; i++) {
+            csv.append(" ,d,true,\n");
+        }
+
+        ItemImportReportDto report = service.importCsv(1L, body(csv.toString()));
+
+        assertThat(report.getRejected()).isEqualTo(151);
+        assertThat(report.getErrors()).hasSize(100);
+        assertThat(report.getErrors().get(0).getRow()).isEqualTo(1L);
+        assertThat(report.getErrors().get(0).getError()).startsWith("requestId");
+        assertThat(report.getErrors().get(99).getRow()).isEqualTo(100L);
+    }
+
+    @Test
+    void importCsv_missingColumn_throwsValidation() {
+        given(userRepository.existsById(1L)).willReturn(true);
+
+        assertThatThrownBy(() -> service.importCsv(1L, body("name,description\nDrill,d\n")))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("available");
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
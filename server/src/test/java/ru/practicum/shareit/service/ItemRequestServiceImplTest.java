@@ -5,8 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.request.*;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
@@ -68,12 +72,12 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getAll_ok() {
-        when(requestRepo.findOtherUsersRequests(eq(1L), any()))
-                .thenReturn(List.of(request));
+        when(requestRepo.findByRequesterIdNotOrderByCreatedDescIdDesc(eq(1L), any(), eq(Limit.of(10))))
+                .thenReturn(Window.from(List.of(request), ScrollPosition::offset));
         when(itemRepo.findByRequestIdIn(List.of(3L))).thenReturn(List.of(item));
         when(mapper.toDto(eq(request), anyList())).thenReturn(dto);
 
-        List<ItemRequestDto> list = service.getAll(1L);
+        List<ItemRequestDto> list = service.getAll(1L, PageParams.of(0, 10));
 
         assertThat(list).hasSize(1);
     }
@@ -108,12 +112,12 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getAll_noRequests_returnsEmpty() {
-        when(requestRepo.findOtherUsersRequests(eq(1L), any()))
-                .thenReturn(Collections.emptyList());
+        when(requestRepo.findByRequesterIdNotOrderByCreatedDescIdDesc(eq(1L), any(), any()))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
         when(itemRepo.findByRequestIdIn(Collections.emptyList()))
                 .thenReturn(Collections.emptyList());
 
-        var list = service.getAll(1L);
+        var list = service.getAll(1L, PageParams.of(0, 10));
 
         assertThat(list).isEmpty();
         verify(itemRepo).findByRequestIdIn(Collections.emptyList());
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.FullTextItemSearch;
+import ru.practicum.shareit.item.search.LikeItemSearch;
+import ru.practicum.shareit.item.search.TrigramItemSearch;
+import ru.practicum.shareit.pagination.PageParams;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchTest {
+
+    private static final Pageable PAGE = PageParams.of(0, 10).pageable();
+
+    @Mock
+    ItemRepository itemRepository;
+
+    private final Item drill = Item.builder().id(1L).name("Дрель").available(true).build();
+    private final Item saw = Item.builder().id(2L).name("Пила").available(true).build();
+
+    @Test
+    void like_delegatesToRepository() {
+        when(itemRepository.search("дрель", PAGE)).thenReturn(List.of(drill));
+
+        assertThat(new LikeItemSearch(itemRepository).search("дрель", PAGE)).containsExactly(drill);
+    }
+
+    @Test
+    void fullText_keepsRankOrder() {
+        when(itemRepository.fullTextSearch("дрель", PAGE)).thenReturn(List.of(2L, 1L));
+        when(itemRepository.findByIdIn(List.of(2L, 1L))).thenReturn(List.of(drill, saw));
+
+        List<Item> result = new FullTextItemSearch(itemRepository).search("дрель", PAGE);
+
+        assertThat(result).containsExactly(saw, drill);
+    }
+
+    @Test
+    void fullText_noMatches_skipsSecondQuery() {
+        when(itemRepository.fullTextSearch("xyz", PAGE)).thenReturn(List.of());
+
+        assertThat(new FullTextItemSearch(itemRepository).search("xyz", PAGE)).isEmpty();
+        verify(itemRepository, never()).findByIdIn(anyCollection());
+    }
+
+    @Test
+    void trigram_lowercasesAndWrapsText() {
+        when(itemRepository.searchByPattern("%дрель%", PAGE)).thenReturn(List.of(drill));
+
+        assertThat(new TrigramItemSearch(itemRepository).search("ДРЕЛЬ", PAGE)).containsExactly(drill);
+    }
+
+    @Test
+    void trigram_escapesWildcards() {
+        new TrigramItemSearch(itemRepository).search("100%_\\", PAGE);
+
+        verify(itemRepository).searchByPattern("%100\\%\\_\\\\%", PAGE);
+    }
+}
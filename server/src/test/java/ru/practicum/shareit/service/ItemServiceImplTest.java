@@ -1,6 +1,7 @@
 package ru.practicum.shareit.service;
 
 import jakarta.validation.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -9,18 +10,24 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.BookingServiceImpl;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentDto;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.OwnerItemView;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -35,10 +42,16 @@ class ItemServiceImplTest {
     @Mock  private BookingServiceImpl bookingService;
     @Mock  private CommentRepository commentRepository;
     @Mock  private ItemMapper itemMapper;
+    @Mock  private ItemSearch itemSearch;
+    @Spy   private ItemDetailCache itemDetailCache =
+            new ItemDetailCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry(),
+                    new CacheInvalidationBus(null, null, new SimpleMeterRegistry(), Duration.ofMillis(500)));
 
     @InjectMocks
     private ItemServiceImpl itemService;
 
+    private static final PageParams PAGE = PageParams.of(0, 10);
+
     private User owner;
     private Item   item;
     private ItemDto dtoIn;
@@ -116,24 +129,58 @@ class ItemServiceImplTest {
             assertThat(result).isEqualTo(dtoOut);
             verify(itemMapper).toSimpleDto(item);
         }
+
+        @Test
+        void repeatedReads_servedFromCachePerView() {
+            ItemDto simple = dtoOut.toBuilder().lastBooking(null).build();
+            when(itemRepository.findById(10L)).thenReturn(Optional.of(item));
+            when(itemMapper.toDto(item)).thenReturn(dtoOut);
+            when(itemMapper.toSimpleDto(item)).thenReturn(simple);
+
+            itemService.getById(1L, 10L);
+            itemService.getById(99L, 10L);
+            assertThat(itemService.getById(1L, 10L)).isSameAs(dtoOut);
+            assertThat(itemService.getById(98L, 10L)).isSameAs(simple);
+
+            verify(itemRepository, times(2)).findById(10L);
+        }
+
+        @Test
+        void update_evictsBothViews() {
+            when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+            when(itemRepository.findById(10L)).thenReturn(Optional.of(item));
+            when(itemRepository.save(any())).thenReturn(item);
+            when(itemMapper.toDto(item)).thenReturn(dtoOut);
+            when(itemMapper.toSimpleDto(item)).thenReturn(dtoOut);
+            itemService.getById(1L, 10L);
+            itemService.getById(99L, 10L);
+
+            itemService.update(1L, 10L, ItemDto.builder().name("new").build());
+            itemService.getById(1L, 10L);
+            itemService.getById(99L, 10L);
+
+            verify(itemMapper, times(2)).toSimpleDto(item);
+            verify(itemMapper, times(3)).toDto(item);
+        }
     }
 
     @Test
     void ownerItems_returnsList() {
-        when(itemRepository.findByOwnerId(1L)).thenReturn(List.of(item));
-        when(itemMapper.toSimpleDto(item)).thenReturn(dtoOut);
+        OwnerItemView view = mock(OwnerItemView.class);
+        when(itemRepository.findOwnerItemsWithBookings(eq(1L), any(LocalDateTime.class), eq(PAGE.pageable()))).thenReturn(List.of(view));
+        when(itemMapper.toOwnerDtos(List.of(view))).thenReturn(List.of(dtoOut));
 
-        List<ItemDto> list = itemService.getAllByOwner(1L);
+        List<ItemDto> list = itemService.getAllByOwner(1L, PAGE);
 
         assertThat(list).containsExactly(dtoOut);
     }
 
     @Test
     void search_emptyText_returnsEmpty() {
-        List<ItemDto> list = itemService.search("");
+        List<ItemDto> list = itemService.search("", PAGE);
 
         assertThat(list).isEmpty();
-        verify(itemRepository, never()).search(any());
+        verify(itemSearch, never()).search(any(), any());
     }
 
     @Test
@@ -182,13 +229,13 @@ class ItemServiceImplTest {
 
     @Test
     void search_query_returnsDtoList() {
-        when(itemRepository.search("dr")).thenReturn(List.of(item));
-        when(itemMapper.toSimpleDto(item)).thenReturn(dtoOut);
+        when(itemSearch.search("dr", PAGE.pageable())).thenReturn(List.of(item));
+        when(itemMapper.toSimpleDtos(List.of(item))).thenReturn(List.of(dtoOut));
 
-        var list = itemService.search("dr");
+        var list = itemService.search("dr", PAGE);
 
         assertThat(list).containsExactly(dtoOut);
-        verify(itemRepository).search("dr");
+        verify(itemSearch).search("dr", PAGE.pageable());
     }
 
     @Test
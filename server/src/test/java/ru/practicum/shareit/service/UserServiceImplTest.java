@@ -7,12 +7,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.InvalidationEvent;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exception.ExceptionSameEmail;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.*;
 
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -22,12 +27,15 @@ import static org.mockito.Mockito.*;
 class UserServiceImplTest {
 
     @Mock  UserRepository userRepository;
+    @Mock  ItemRepository itemRepository;
+    @Mock  CacheInvalidationBus invalidationBus;
+    @Spy   EmailBloomFilter emailFilter = new EmailBloomFilter(1_000, 0.01);
     @InjectMocks UserServiceImpl userService;
 
     @Test
     @DisplayName("create(): happy-path сохраняет пользователя")
     void create_ok() {
-        when(userRepository.save(any())).thenAnswer(inv -> {
+        when(userRepository.saveAndFlush(any())).thenAnswer(inv -> {
             User u = inv.getArgument(0, User.class);
             u.setId(1L);
             return u;
@@ -36,31 +44,65 @@ class UserServiceImplTest {
         UserDto saved = userService.create(new UserDto(null, "Bob", "bob@mail.com"));
 
         assertThat(saved.getId()).isEqualTo(1L);
-        verify(userRepository).save(any());
+        assertThat(emailFilter.mightContain("bob@mail.com")).isTrue();
+        verify(userRepository, never()).existsByEmail(any());
     }
 
     @Test
     @DisplayName("create(): дубликат e-mail → ExceptionSameEmail")
     void create_duplicateEmail() {
+        emailFilter.put("bob@mail.com");
         when(userRepository.existsByEmail("bob@mail.com")).thenReturn(true);
 
         assertThatThrownBy(() -> userService.create(new UserDto(null, "Bob", "bob@mail.com")))
                 .isInstanceOf(ExceptionSameEmail.class);
 
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
     @DisplayName("create(): null e-mail → ValidationException")
     void create_nullEmail() {
-        when(userRepository.existsByEmail(null)).thenReturn(false);
-
         assertThatThrownBy(() ->
                 userService.create(new UserDto(null, "Bob", null)))
                 .isInstanceOf(ValidationException.class);
 
-        verify(userRepository).existsByEmail(null);
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).existsByEmail(any());
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("create(): e-mail занят на другом узле → нарушение users_email_key → ExceptionSameEmail")
+    void create_uniqueConstraintViolation() {
+        when(userRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("insert",
+                new RuntimeException("duplicate key value violates unique constraint \"users_email_key\"")));
+
+        assertThatThrownBy(() -> userService.create(new UserDto(null, "Bob", "bob@mail.com")))
+                .isInstanceOf(ExceptionSameEmail.class);
+
+        assertThat(emailFilter.mightContain("bob@mail.com")).isTrue();
+        verify(invalidationBus, never()).publish(any(), any());
+    }
+
+    @Test
+    @DisplayName("create(): другие нарушения целостности не выдаются за дубликат e-mail")
+    void create_otherConstraintViolation() {
+        when(userRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("insert",
+                new RuntimeException("null value in column \"name\" violates not-null constraint")));
+
+        assertThatThrownBy(() -> userService.create(new UserDto(null, null, "bob@mail.com")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("loadEmailFilter(): заполняет фильтр адресами из БД")
+    void loadEmailFilter() {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("a@mail.com", "b@mail.com"));
+
+        userService.loadEmailFilter();
+
+        assertThat(emailFilter.mightContain("a@mail.com")).isTrue();
+        assertThat(emailFilter.mightContain("b@mail.com")).isTrue();
     }
 
     @Nested
@@ -72,7 +114,7 @@ class UserServiceImplTest {
         @DisplayName("update(): меняет только имя, e-mail остаётся")
         void update_nameOnly() {
             when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
-            when(userRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+            when(userRepository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
 
             UserDto dto = userService.update(1L, new UserDto(null, "Bobby", null));
 
@@ -84,8 +126,7 @@ class UserServiceImplTest {
         @DisplayName("update(): меняет e-mail, имя остаётся")
         void update_emailOnly() {
             when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
-            when(userRepository.existsByEmailAndIdNot("new@mail.com", 1L)).thenReturn(false);
-            when(userRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+            when(userRepository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
 
             UserDto dto = userService.update(1L, new UserDto(null, null, "new@mail.com"));
 
@@ -96,13 +137,14 @@ class UserServiceImplTest {
         @Test
         @DisplayName("update(): e-mail уже занят другим → ExceptionSameEmail")
         void update_duplicateEmail() {
+            emailFilter.put("dup@mail.com");
             when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
             when(userRepository.existsByEmailAndIdNot("dup@mail.com", 1L)).thenReturn(true);
 
             assertThatThrownBy(() -> userService.update(1L, new UserDto(null, null, "dup@mail.com")))
                     .isInstanceOf(ExceptionSameEmail.class);
 
-            verify(userRepository, never()).save(any());
+            verify(userRepository, never()).saveAndFlush(any());
         }
     }
 
@@ -143,4 +185,15 @@ class UserServiceImplTest {
         userService.delete(1L);
         verify(userRepository).deleteById(1L);
     }
+
+    @Test
+    @DisplayName("delete(): вещи, удалённые каскадом в базе, сбрасываются из кэшей")
+    void delete_evictsOwnedItems() {
+        when(itemRepository.findIdsByOwnerId(1L)).thenReturn(List.of(10L, 11L));
+
+        userService.delete(1L);
+
+        verify(invalidationBus).publish(InvalidationEvent.Type.USER, List.of(1L));
+        verify(invalidationBus).publish(InvalidationEvent.Type.ITEM, List.of(10L, 11L));
+    }
 }
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.serviceIT;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingBatchMode;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureTestDatabase
+@Transactional
+class BookingBatchIT {
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserService userService;
+
+    Long bookerId;
+    List<Long> itemIds = new ArrayList<>();
+    LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    @BeforeEach
+    void initData() {
+        Long ownerId = userService.create(new UserDto(null, "Owner", "owner@mail")).getId();
+        bookerId = userService.create(new UserDto(null, "Booker", "booker@mail")).getId();
+        for (int i = 0; i < 5; i++) {
+            itemIds.add(itemService.create(ownerId, ItemDto.builder()
+                    .name("Tent " + i).description("tent").available(i != 4).build()).getId());
+        }
+    }
+
+    @Test
+    void createAll_insertsWholeCartWithGeneratedIds() {
+        List<BookingBatchResultDto> results = bookingService.createAll(bookerId,
+                itemIds.subList(0, 4).stream().map(this::request).toList(), BookingBatchMode.ALL_OR_NOTHING);
+
+        assertThat(results).extracting(BookingBatchResultDto::getItemId).containsExactlyElementsOf(itemIds.subList(0, 4));
+        assertThat(results).allSatisfy(r -> {
+            assertThat(r.getOutcome()).isEqualTo(BookingBatchResultDto.Outcome.CREATED);
+            assertThat(bookingRepository.findById(r.getBooking().getId())).get()
+                    .satisfies(b -> assertThat(b.getItem().getId()).isEqualTo(r.getItemId()))
+                    .satisfies(b -> assertThat(b.getStatus()).isEqualTo(BookingStatus.WAITING));
+        });
+        assertThat(bookingService.getAllByBooker(bookerId, "WAITING", PageParams.of(0, 10))).hasSize(4);
+    }
+
+    @Test
+    void createAll_allOrNothing_writesNothingOnMissingItem() {
+        List<BookingRequestDto> cart = List.of(request(itemIds.get(0)), request(-1L));
+
+        assertThatThrownBy(() -> bookingService.createAll(bookerId, cart, BookingBatchMode.ALL_OR_NOTHING))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(bookingRepository.count()).isZero();
+    }
+
+    @Test
+    void createAll_perItem_skipsUnavailable() {
+        List<BookingBatchResultDto> results = bookingService.createAll(bookerId,
+                List.of(request(itemIds.get(4)), request(itemIds.get(0))), BookingBatchMode.PER_ITEM);
+
+        assertThat(results).extracting(BookingBatchResultDto::getOutcome).containsExactly(
+                BookingBatchResultDto.Outcome.UNAVAILABLE, BookingBatchResultDto.Outcome.CREATED);
+        assertThat(bookingRepository.count()).isEqualTo(1);
+    }
+
+    private BookingRequestDto request(Long itemId) {
+        return BookingRequestDto.builder().itemId(itemId).start(start).end(start.plusDays(1)).build();
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.serviceIT;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Сотни арендаторов одновременно бронируют одну вещь на несколько пересекающихся периодов,
+ * владелец параллельно подтверждает все брони; параллельные решения по одной брони - один победитель. Без транзакции теста: каждое подтверждение
+ * коммитится отдельно, как в проде. Тест идёт на H2 (профиль test), где ограничения bookings_no_overlap
+ * нет: проверяется только блокировка вещи и условный UPDATE, само ограничение PostgreSQL здесь не участвует.
+ */
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureTestDatabase
+class BookingConcurrencyIT {
+    private static final int BOOKERS = 300;
+    private static final int SLOTS = 10;
+    private static final int THREADS = 32;
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    Long ownerId;
+    Long itemId;
+    List<Long> bookerIds = new ArrayList<>();
+
+    @BeforeEach
+    void initData() {
+        ownerId = userService.create(new UserDto(null, "Owner", "hot-owner@mail")).getId();
+        itemId = itemService.create(ownerId, ItemDto.builder()
+                .name("Hot drill").description("drill").available(true).build()).getId();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(userService.create(new UserDto(null, "Booker " + i, "hot-booker" + i + "@mail")).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        pool.shutdownNow();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void parallelApprovals_neverOverlapOnOneItem() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<Long> bookingIds = runAll(bookerIds.stream()
+                .map(bookerId -> (Callable<Long>) () -> {
+                    // периоды по 2 дня со сдвигом в 1 день: соседние слоты пересекаются
+                    LocalDateTime from = start.plusDays(bookerId % SLOTS);
+                    return bookingService.create(bookerId, BookingRequestDto.builder()
+                            .itemId(itemId).start(from).end(from.plusDays(2)).build()).getId();
+                })
+                .toList());
+
+        AtomicInteger conflicts = new AtomicInteger();
+        runAll(bookingIds.stream()
+                .map(bookingId -> (Callable<Long>) () -> {
+                    try {
+                        bookingService.approve(ownerId, bookingId, true);
+                    } catch (BookingConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                    return bookingId;
+                })
+                .toList());
+
+        List<Booking> approved = bookingRepository.findAll().stream()
+                .filter(b -> b.getStatus() == BookingStatus.APPROVED)
+                .toList();
+        assertThat(approved).isNotEmpty();
+        assertThat(approved.size() + conflicts.get()).isEqualTo(BOOKERS);
+        for (Booking a : approved) {
+            for (Booking b : approved) {
+                if (!a.getId().equals(b.getId())) {
+                    assertThat(a.getStart().isBefore(b.getEnd()) && a.getEnd().isAfter(b.getStart()))
+                            .as("брони %d и %d пересекаются", a.getId(), b.getId())
+                            .isFalse();
+                }
+            }
+        }
+        Map<LocalDateTime, Long> perSlot = approved.stream()
+                .collect(Collectors.groupingBy(Booking::getStart, Collectors.counting()));
+        assertThat(perSlot.values()).allMatch(count -> count == 1);
+    }
+
+    @Test
+    void concurrentDecisionsOnOneBooking_singleWinnerOthersConflict() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = bookingService.create(bookerIds.get(0), BookingRequestDto.builder()
+                .itemId(itemId).start(start).end(start.plusDays(1)).build()).getId();
+
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Long> winners = runAll(bookerIds.subList(0, THREADS * 2).stream()
+                .map(bookerId -> (Callable<Long>) () -> {
+                    try {
+                        bookingService.approve(ownerId, bookingId, bookerId % 2 == 0);
+                        return 1L;
+                    } catch (BookingConflictException e) {
+                        conflicts.incrementAndGet();
+                        return 0L;
+                    }
+                })
+                .toList());
+
+        assertThat(winners.stream().mapToLong(Long::longValue).sum()).isEqualTo(1);
+        assertThat(conflicts.get()).isEqualTo(THREADS * 2 - 1);
+        assertThat(bookingRepository.findById(bookingId).orElseThrow().getStatus())
+                .isIn(BookingStatus.APPROVED, BookingStatus.REJECTED);
+    }
+
+    @Test
+    void bulkAndSingleApprovals_neverOverlapAndNeverDeadlock() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<Long> bookingIds = new ArrayList<>();
+        for (Long bookerId : bookerIds) {
+            LocalDateTime from = start.plusDays(bookerId % SLOTS);
+            bookingIds.add(bookingService.create(bookerId, BookingRequestDto.builder()
+                    .itemId(itemId).start(from).end(from.plusDays(2)).build()).getId());
+        }
+
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < bookingIds.size(); i += 10) {
+            List<Long> batch = bookingIds.subList(i, Math.min(i + 10, bookingIds.size()));
+            tasks.add(() -> (long) bookingService.decideAll(ownerId, batch, true).size());
+            tasks.add(() -> {
+                try {
+                    bookingService.approve(ownerId, batch.get(0), true);
+                } catch (BookingConflictException e) {
+                    return 0L;
+                }
+                return 1L;
+            });
+        }
+        runAll(tasks);
+
+        List<Booking> approved = bookingRepository.findAll().stream()
+                .filter(b -> b.getStatus() == BookingStatus.APPROVED)
+                .toList();
+        assertThat(approved).isNotEmpty();
+        assertThat(approved).allSatisfy(a -> assertThat(approved).noneMatch(b -> !a.getId().equals(b.getId())
+                && a.getStart().isBefore(b.getEnd()) && a.getEnd().isAfter(b.getStart())));
+    }
+
+    private List<Long> runAll(List<Callable<Long>> tasks) throws InterruptedException, ExecutionException {
+        List<Long> results = new ArrayList<>();
+        for (Future<Long> future : pool.invokeAll(tasks)) {
+            results.add(future.get());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.serviceIT;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Планы запросов списков бронирований: для каждого состояния EXPLAIN SQL, который
+ * реально сгенерировал Hibernate, и проверка, что bookings читается по индексу, а не полным сканом.
+ * H2 не учитывает порядок сортировки при выборе индекса и может взять одноколоночный индекс внешнего ключа,
+ * поэтому проверяется ведущая колонка индекса, а наличие составных индексов - отдельно.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.serviceIT.BookingQueryPlanIT$SqlRecorder")
+@AutoConfigureTestDatabase
+@Transactional
+class BookingQueryPlanIT {
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+    private static final PageParams PAGE = PageParams.of(0, 10);
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    User owner;
+    User booker;
+
+    @BeforeEach
+    void seed() {
+        owner = User.builder().name("owner").email("owner@mail.com").build();
+        booker = User.builder().name("booker").email("booker@mail.com").build();
+        em.persist(owner);
+        em.persist(booker);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 200; i++) {
+            User other = User.builder().name("user" + i).email("user" + i + "@mail.com").build();
+            em.persist(other);
+            Item item = Item.builder().name("Item " + i).description("d").available(true).owner(other).build();
+            em.persist(item);
+            em.persist(Booking.builder().item(item).booker(other).start(now.minusDays(i)).end(now.minusDays(i - 1))
+                    .status(BookingStatus.values()[i % BookingStatus.values().length]).build());
+        }
+        Item own = Item.builder().name("Own").description("d").available(true).owner(owner).build();
+        em.persist(own);
+        em.persist(Booking.builder().item(own).booker(booker).start(now.plusDays(1)).end(now.plusDays(2))
+                .status(BookingStatus.WAITING).build());
+        em.flush();
+        jdbc.execute("ANALYZE");
+    }
+
+    /**
+     * ANALYZE в H2 фиксирует текущую транзакцию, откат теста данные не убирает.
+     */
+    @AfterTransaction
+    void cleanUp() {
+        jdbc.update("DELETE FROM bookings");
+        jdbc.update("DELETE FROM items");
+        jdbc.update("DELETE FROM users");
+    }
+
+    @Test
+    void bookerStates_useBookerStartIndex() {
+        for (String state : STATES) {
+            String plan = explain(() -> bookingService.getAllByBooker(booker.getId(), state, PAGE));
+
+            assertThat(bookingsAccess(plan)).as(state).contains("BOOKER_ID = ?1").doesNotContain("TABLESCAN");
+        }
+    }
+
+    @Test
+    void bookerKeyset_usesBookerStartIndex() {
+        PageParams cursor = new PageParams(0, 10, LocalDateTime.now(), 1L);
+
+        String plan = explain(() -> bookingService.getAllByBooker(booker.getId(), "ALL", cursor));
+
+        assertThat(bookingsAccess(plan)).contains("BOOKER_ID = ?1").doesNotContain("TABLESCAN");
+    }
+
+    @Test
+    void ownerStates_useOwnerAndItemIndexes() {
+        for (String state : STATES) {
+            String plan = explain(() -> bookingService.getAllByOwner(owner.getId(), state, PAGE));
+
+            assertThat(plan).as(state).contains("IDX_ITEMS_OWNER: OWNER_ID = ?1");
+            assertThat(bookingsAccess(plan)).as(state).contains("ITEM_ID = I1_0.ID").doesNotContain("TABLESCAN");
+        }
+    }
+
+    @Test
+    void compositeIndexesExist() {
+        List<String> indexes = jdbc.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_name IN ('BOOKINGS', 'ITEMS')",
+                String.class);
+
+        assertThat(indexes).contains("IDX_BOOKINGS_BOOKER_START_ID", "IDX_BOOKINGS_ITEM_STATUS_START",
+                "IDX_ITEMS_OWNER");
+    }
+
+    @Test
+    void filterIncludesOnlyConditionsOfState() {
+        explain(() -> bookingService.getAllByBooker(booker.getId(), "WAITING", PAGE));
+        String waiting = SqlRecorder.lastSelectFromBookings().toLowerCase(Locale.ROOT);
+        explain(() -> bookingService.getAllByBooker(booker.getId(), "ALL", PAGE));
+        String all = SqlRecorder.lastSelectFromBookings().toLowerCase(Locale.ROOT);
+
+        assertThat(waiting).contains("status=?").doesNotContain("is null");
+        assertThat(all).doesNotContain("status=").doesNotContain("start_date<").doesNotContain("is null");
+    }
+
+    private String explain(Runnable query) {
+        SqlRecorder.SQL.clear();
+        query.run();
+        String sql = SqlRecorder.lastSelectFromBookings();
+        return String.join("\n", jdbc.queryForList("EXPLAIN " + sql, String.class)).toUpperCase(Locale.ROOT);
+    }
+
+    private String bookingsAccess(String plan) {
+        String tail = plan.substring(plan.indexOf("\"PUBLIC\".\"BOOKINGS\""));
+        return tail.lines().skip(1).findFirst().orElseThrow();
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> SQL = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+
+        static String lastSelectFromBookings() {
+            return SQL.stream()
+                    .filter(sql -> sql.toLowerCase(Locale.ROOT).contains("from bookings"))
+                    .reduce((first, second) -> second)
+                    .orElseThrow();
+        }
+    }
+}
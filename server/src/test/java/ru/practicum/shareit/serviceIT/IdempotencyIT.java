@@ -0,0 +1,151 @@
+package ru.practicum.shareit.serviceIT;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.exception.IdempotencyKeyConflictException;
+import ru.practicum.shareit.idempotency.IdempotencyRepository;
+import ru.practicum.shareit.idempotency.IdempotencyService;
+import ru.practicum.shareit.idempotency.IdempotencyServiceImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Повторы POST /items с одним Idempotency-Key. Без транзакции теста: ключ и вещь
+ * коммитятся вместе, как в проде.
+ */
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureTestDatabase
+class IdempotencyIT {
+    private static final int THREADS = 16;
+
+    @Autowired
+    IdempotencyServiceImpl idempotencyService;
+    @Autowired
+    IdempotencyRepository idempotencyRepository;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    Long ownerId;
+    ItemDto drill = ItemDto.builder().name("Drill").description("d").available(true).build();
+    AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void initData() {
+        ownerId = userService.create(new UserDto(null, "Owner", "idem-owner@mail")).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        idempotencyRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void replay_returnsStoredResponseWithoutSecondCreate() {
+        ItemDto first = create("key-1", drill);
+        ItemDto second = create("key-1", drill);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(calls).hasValue(1);
+        assertThat(itemRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void sameKeyDifferentBody_isRejected() {
+        create("key-1", drill);
+
+        assertThatThrownBy(() -> create("key-1", drill.toBuilder().name("Saw").build()))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+        assertThat(itemRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void keysAreScopedByUser() {
+        Long otherId = userService.create(new UserDto(null, "Other", "idem-other@mail")).getId();
+
+        create("key-1", drill);
+        idempotencyService.execute("POST /items", otherId, "key-1", drill, ItemDto.class,
+                () -> itemService.create(otherId, drill));
+
+        assertThat(itemRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentRetries_createOneItem() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ItemDto>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return create("key-1", drill);
+            }));
+        }
+        start.countDown();
+        List<Long> ids = new ArrayList<>();
+        for (Future<ItemDto> future : futures) {
+            ids.add(future.get(30, TimeUnit.SECONDS).getId());
+        }
+        pool.shutdown();
+
+        assertThat(ids).containsOnly(ids.get(0));
+        assertThat(itemRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredKey_isCleanedUpAndExecutesAgain() throws Exception {
+        IdempotencyServiceImpl shortLived = new IdempotencyServiceImpl(idempotencyRepository, transactionTemplate,
+                objectMapper, Duration.ofMillis(200), 100);
+        create(shortLived, "key-1", drill);
+        Thread.sleep(300);
+
+        transactionTemplate.executeWithoutResult(status -> shortLived.deleteExpired());
+        assertThat(idempotencyRepository.count()).isZero();
+        create(shortLived, "key-1", drill);
+
+        assertThat(calls).hasValue(2);
+        assertThat(itemRepository.count()).isEqualTo(2);
+        assertThat(idempotencyRepository.count()).isEqualTo(1);
+    }
+
+    private ItemDto create(String key, ItemDto dto) {
+        return create(idempotencyService, key, dto);
+    }
+
+    private ItemDto create(IdempotencyService service, String key, ItemDto dto) {
+        return service.execute("POST /items", ownerId, key, dto, ItemDto.class, () -> {
+            calls.incrementAndGet();
+            return itemService.create(ownerId, dto);
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.serviceIT;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureTestDatabase
+@Transactional
+class ItemDetailCacheIT {
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    ItemDetailCache itemDetailCache;
+
+    Long ownerId;
+    Long bookerId;
+    Long itemId;
+
+    @BeforeEach
+    void initData() {
+        ownerId = userService.create(new UserDto(null, "Owner", "cache-owner@mail")).getId();
+        bookerId = userService.create(new UserDto(null, "Booker", "cache-booker@mail")).getId();
+        itemId = itemService.create(ownerId, ItemDto.builder()
+                .name("Drill").description("d").available(true).build()).getId();
+    }
+
+    @Test
+    void approvedBooking_showsUpInOwnerViewOnly() {
+        assertThat(itemService.getById(ownerId, itemId).getNextBooking()).isNull();
+        assertThat(itemService.getById(bookerId, itemId).getNextBooking()).isNull();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        Long bookingId = bookingService.create(bookerId, BookingRequestDto.builder()
+                .itemId(itemId).start(start).end(start.plusDays(1)).build()).getId();
+        bookingService.approve(ownerId, bookingId, true);
+
+        assertThat(itemService.getById(ownerId, itemId).getNextBooking()).isEqualTo(start);
+        assertThat(itemService.getById(bookerId, itemId).getNextBooking()).isNull();
+    }
+
+    @Test
+    void update_isVisibleToBothViews() {
+        itemService.getById(ownerId, itemId);
+        itemService.getById(bookerId, itemId);
+
+        itemService.update(ownerId, itemId, ItemDto.builder().name("Hammer").build());
+
+        assertThat(itemService.getById(ownerId, itemId).getName()).isEqualTo("Hammer");
+        assertThat(itemService.getById(bookerId, itemId).getName()).isEqualTo("Hammer");
+    }
+
+    @Test
+    void evictionDuringLoad_doesNotCacheStaleView() {
+        ItemDto stale = ItemDto.builder().id(itemId).name("Drill").build();
+        ItemDto fresh = ItemDto.builder().id(itemId).name("Hammer").build();
+
+        itemDetailCache.get(itemId, bookerId, id -> {
+            itemDetailCache.evict(id);                 // писатель закоммитил, пока читатель грузил строку
+            return new ItemDetailCache.Entry(ownerId, stale);
+        });
+
+        assertThat(itemDetailCache.get(itemId, bookerId, id -> new ItemDetailCache.Entry(ownerId, fresh)).item())
+                .isEqualTo(fresh);
+    }
+
+    @Test
+    void hitRatio_isPublishedAsMetric() {
+        double hitsBefore = meterRegistry.get("cache.gets").tag("cache", ItemDetailCache.NAME)
+                .tag("result", "hit").functionCounter().count();
+
+        itemService.getById(bookerId, itemId);
+        itemService.getById(bookerId, itemId);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", ItemDetailCache.NAME)
+                .tag("result", "hit").functionCounter().count()).isGreaterThan(hitsBefore);
+        assertThat(meterRegistry.get("cache.hit.ratio").tag("cache", ItemDetailCache.NAME).gauge().value())
+                .isPositive();
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.serviceIT;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.bulk.ItemImportService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.User;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureTestDatabase
+@Transactional
+class ItemImportIT {
+    private static final int ROWS = 2_500;
+
+    @Autowired
+    ItemImportService importService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    EntityManager em;
+
+    User owner;
+
+    @BeforeEach
+    void seed() {
+        owner = User.builder().name("owner").email("owner@mail.com").build();
+        em.persist(owner);
+        em.flush();
+    }
+
+    @Test
+    void importCsv_storesAllValidRowsAcrossChunks() throws Exception {
+        StringBuilder csv = new StringBuilder("name,description,available\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(i == 7 ? "" : "Дрель " + i).append(",\"ударная, с кейсом\",true\n");
+        }
+
+        ItemImportReportDto report = importService.importCsv(owner.getId(), stream(csv.toString()));
+
+        assertThat(report.getImported()).isEqualTo(ROWS - 1);
+        assertThat(report.getErrors()).extracting(ItemImportReportDto.RowError::getRow).containsExactly(8L);
+        List<ItemDto> stored = itemService.getAllByOwner(owner.getId(), PageParams.of(0, ROWS));
+        assertThat(stored).hasSize(ROWS - 1);
+        assertThat(stored.get(0).getDescription()).isEqualTo("ударная, с кейсом");
+    }
+
+    @Test
+    void importJson_idsDoNotCollideWithRegularInserts() throws Exception {
+        ItemImportReportDto report = importService.importJson(owner.getId(), stream("""
+                [{"name":"Drill","description":"d","available":true},
+                 {"name":"Saw","description":"s","available":false,"requestId":999}]
+                """));
+        em.clear();
+        ItemDto created = itemService.create(owner.getId(),
+                ItemDto.builder().name("Hammer").description("h").available(true).build());
+        em.flush();
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getError()).contains("request not found");
+        List<Long> ids = em.createQuery("select i.id from Item i where i.owner.id = :owner", Long.class)
+                .setParameter("owner", owner.getId())
+                .getResultList();
+        assertThat(ids).hasSize(2).doesNotHaveDuplicates().contains(created.getId());
+        assertThat(em.find(Item.class, ids.get(0)).getOwner().getId()).isEqualTo(owner.getId());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.serviceIT;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.comment.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItServer.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase
+@Transactional
+class ItemListQueryCountIT {
+    private static final PageParams PAGE = PageParams.of(0, 100);
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    EntityManager em;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void init() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAllByOwner_queryCountDoesNotGrowWithPageSize() {
+        long small = ownerListQueries(5);
+        long large = ownerListQueries(50);
+
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void search_queryCountDoesNotGrowWithPageSize() {
+        long small = searchQueries("small", 5);
+        long large = searchQueries("large", 50);
+
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long ownerListQueries(int items) {
+        User owner = seed("owner" + items, items, "Drill");
+        resetStatistics();
+
+        List<ItemDto> result = itemService.getAllByOwner(owner.getId(), PAGE);
+
+        long queries = statistics.getPrepareStatementCount();
+        assertThat(result).hasSize(items)
+                .allSatisfy(dto -> assertThat(dto.getComments()).hasSize(2));
+        return queries;
+    }
+
+    private long searchQueries(String word, int items) {
+        for (int i = 0; i < items; i++) {
+            seed(word + i, 1, word + " drill");
+        }
+        resetStatistics();
+
+        List<ItemDto> result = itemService.search(word, PAGE);
+
+        long queries = statistics.getPrepareStatementCount();
+        assertThat(result).hasSize(items)
+                .allSatisfy(dto -> assertThat(dto.getComments()).hasSize(2));
+        return queries;
+    }
+
+    private void resetStatistics() {
+        em.flush();
+        em.clear();
+        statistics.clear();
+    }
+
+    private User seed(String prefix, int items, String name) {
+        User owner = User.builder().name(prefix).email(prefix + "@mail.com").build();
+        User author = User.builder().name(prefix + "-author").email(prefix + "-author@mail.com").build();
+        em.persist(owner);
+        em.persist(author);
+        for (int i = 0; i < items; i++) {
+            Item item = Item.builder().name(name).description("item " + i).available(true).owner(owner).build();
+            em.persist(item);
+            for (int c = 0; c < 2; c++) {
+                em.persist(Comment.builder().text("comment " + c).author(author).item(item)
+                        .created(LocalDateTime.now().minusHours(c)).build());
+            }
+        }
+        return owner;
+    }
+}
@@ -8,11 +8,17 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.UserService;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -21,10 +27,12 @@ import static org.assertj.core.api.Assertions.*;
 @AutoConfigureTestDatabase
 @Transactional
 class ItemServiceImplIT {
+    private static final PageParams PAGE = PageParams.of(0, 10);
 
     @Autowired
     ItemService itemService;
     @Autowired UserService userService;
+    @Autowired BookingService bookingService;
 
     Long ownerId;
     Long otherId;
@@ -45,16 +53,51 @@ class ItemServiceImplIT {
 
     @Test
     void getUserItems_returnsOnlyOwners() {
-        List<ItemDto> items = itemService.getAllByOwner(ownerId);
+        List<ItemDto> items = itemService.getAllByOwner(ownerId, PAGE);
         assertThat(items).hasSize(1).first().extracting(ItemDto::getId).isEqualTo(itemId);
     }
 
+    @Test
+    void getUserItems_fillsLastAndNextApprovedBooking() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        BookingResponseDto past = bookingService.create(otherId, booking(now.minusDays(3), now.minusDays(2)));
+        BookingResponseDto latestPast = bookingService.create(otherId, booking(now.minusDays(2), now.minusDays(1)));
+        BookingResponseDto next = bookingService.create(otherId, booking(now.plusDays(1), now.plusDays(2)));
+        bookingService.create(otherId, booking(now.plusHours(1), now.plusHours(2)));
+        bookingService.create(otherId, booking(now.plusDays(3), now.plusDays(4)));
+        bookingService.approve(ownerId, past.getId(), true);
+        bookingService.approve(ownerId, latestPast.getId(), true);
+        bookingService.approve(ownerId, next.getId(), true);
+
+        List<ItemDto> items = itemService.getAllByOwner(ownerId, PAGE);
+
+        assertThat(items).singleElement().satisfies(dto -> {
+            assertThat(dto.getLastBooking()).isEqualTo(latestPast.getEnd());
+            assertThat(dto.getNextBooking()).isEqualTo(next.getStart());
+        });
+    }
+
     @Test
     void search_caseInsensitive_ok() {
-        List<ItemDto> result = itemService.search("drILL");
+        List<ItemDto> result = itemService.search("drILL", PAGE);
         assertThat(result).extracting(ItemDto::getId).contains(itemId);
     }
 
+    private BookingRequestDto booking(LocalDateTime start, LocalDateTime end) {
+        return BookingRequestDto.builder().itemId(itemId).start(start).end(end).build();
+    }
+
+    @Test
+    void search_substringInsideWord_ok() {
+        assertThat(itemService.search("ordless", PAGE)).extracting(ItemDto::getId).containsExactly(itemId);
+    }
+
+    @Test
+    void search_wildcardsMatchLiterally() {
+        assertThat(itemService.search("%", PAGE)).isEmpty();
+        assertThat(itemService.search("_", PAGE)).isEmpty();
+    }
+
     @Test
     void addComment_withoutFinishedBooking_fails() {
         assertThatThrownBy(() ->
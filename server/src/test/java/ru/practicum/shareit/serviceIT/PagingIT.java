@@ -0,0 +1,121 @@
+package ru.practicum.shareit.serviceIT;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.ItemRequestDto;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureTestDatabase
+@Transactional
+class PagingIT {
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemRequestService requestService;
+
+    Long ownerId;
+    Long bookerId;
+    List<Long> itemIds = new ArrayList<>();
+    List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void initData() {
+        ownerId = userService.create(new UserDto(null, "Owner", "owner@mail")).getId();
+        bookerId = userService.create(new UserDto(null, "Booker", "booker@mail")).getId();
+        for (int i = 0; i < 5; i++) {
+            itemIds.add(itemService.create(ownerId, ItemDto.builder()
+                    .name("Drill " + i).description("drill").available(true).build()).getId());
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        // две брони с одинаковым началом: порядок между ними задаёт id
+        for (int i = 0; i < 5; i++) {
+            LocalDateTime from = start.plusDays(Math.min(i, 3));
+            bookingIds.add(bookingService.create(bookerId, BookingRequestDto.builder()
+                    .itemId(itemIds.get(i)).start(from).end(from.plusHours(1)).build()).getId());
+        }
+    }
+
+    @Test
+    void ownerBookings_offsetPagesFollowStartDescIdDesc() {
+        List<Long> expected = List.of(bookingIds.get(4), bookingIds.get(3), bookingIds.get(2),
+                bookingIds.get(1), bookingIds.get(0));
+
+        assertThat(ownerBookings(PageParams.of(0, 2))).containsExactlyElementsOf(expected.subList(0, 2));
+        assertThat(ownerBookings(PageParams.of(2, 2))).containsExactlyElementsOf(expected.subList(2, 4));
+        assertThat(ownerBookings(PageParams.of(1, 3))).containsExactlyElementsOf(expected.subList(1, 4));
+        assertThat(ownerBookings(PageParams.of(4, 10))).containsExactlyElementsOf(expected.subList(4, 5));
+    }
+
+    @Test
+    void bookerBookings_keysetContinuesAfterCursor() {
+        List<BookingResponseDto> first = bookingService.getAllByBooker(bookerId, "ALL", PageParams.of(0, 2));
+        BookingResponseDto last = first.get(1);
+
+        List<BookingResponseDto> next = bookingService.getAllByBooker(bookerId, "ALL",
+                new PageParams(0, 2, last.getStart(), last.getId()));
+
+        assertThat(next).extracting(BookingResponseDto::getId)
+                .containsExactly(bookingIds.get(2), bookingIds.get(1));
+        assertThat(next).extracting(BookingResponseDto::getId)
+                .containsExactlyElementsOf(ownerBookings(PageParams.of(2, 2)));
+    }
+
+    @Test
+    void ownerItemsAndSearch_honorFromAndSize() {
+        assertThat(itemService.getAllByOwner(ownerId, PageParams.of(1, 2)))
+                .extracting(ItemDto::getId).containsExactlyElementsOf(itemIds.subList(1, 3));
+        assertThat(itemService.search("drill", PageParams.of(3, 10)))
+                .extracting(ItemDto::getId).containsExactlyElementsOf(itemIds.subList(3, 5));
+    }
+
+    @Test
+    void otherUsersRequests_pagedNewestFirst() {
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requestIds.add(requestService.create(ownerId,
+                    ItemRequestDto.builder().description("need " + i).build()).getId());
+        }
+
+        List<ItemRequestDto> first = requestService.getAll(bookerId, PageParams.of(0, 2));
+        ItemRequestDto last = first.get(1);
+        List<ItemRequestDto> rest = requestService.getAll(bookerId,
+                new PageParams(0, 2, last.getCreated(), last.getId()));
+
+        assertThat(first).extracting(ItemRequestDto::getId)
+                .containsExactly(requestIds.get(2), requestIds.get(1));
+        assertThat(rest).extracting(ItemRequestDto::getId).containsExactly(requestIds.get(0));
+        assertThat(requestService.getAll(ownerId, PageParams.of(0, 10))).isEmpty();
+    }
+
+    private List<Long> ownerBookings(PageParams page) {
+        return bookingService.getAllByOwner(ownerId, "ALL", page).stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+    }
+}
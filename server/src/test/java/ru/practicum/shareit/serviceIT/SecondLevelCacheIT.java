@@ -0,0 +1,101 @@
+package ru.practicum.shareit.serviceIT;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Второй уровень кэша для User и Item и кэш запросов existsByEmail. Без транзакции теста:
+ * каждая операция в своей сессии, как запросы в проде.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase
+class SecondLevelCacheIT {
+
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+    Long ownerId;
+
+    @BeforeEach
+    void initData() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ownerId = userService.create(new UserDto(null, "Owner", "l2-owner@mail")).getId();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void userLookups_areServedFromSecondLevelCache() {
+        userService.getById(ownerId);
+        long statements = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 10; i++) {
+            userService.getById(ownerId);
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount())
+                .isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    void userUpdate_isVisibleThroughCache() {
+        userService.getById(ownerId);
+
+        userService.update(ownerId, new UserDto(null, "Renamed", null));
+
+        assertThat(userService.getById(ownerId).getName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void existsByEmail_usesQueryCacheUntilUsersChange() {
+        userRepository.existsByEmail("free@mail");
+        userRepository.existsByEmail("free@mail");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        userService.create(new UserDto(null, "Free", "free@mail"));
+
+        assertThat(userRepository.existsByEmail("free@mail")).isTrue();
+    }
+
+    @Test
+    void itemCreate_readsOwnerFromCache() {
+        userService.getById(ownerId);
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        itemService.create(ownerId, ItemDto.builder().name("Drill").description("d").available(true).build());
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hits);
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.serviceIT;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.streaming.Streaming;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureTestDatabase
+@Transactional
+class StreamingIT {
+    private static final int ROWS = Streaming.CHUNK_SIZE * 2 + 100;
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    EntityManager em;
+
+    User owner;
+
+    @BeforeEach
+    void seed() {
+        owner = User.builder().name("owner").email("owner@mail.com").build();
+        User booker = User.builder().name("booker").email("booker@mail.com").build();
+        em.persist(owner);
+        em.persist(booker);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Item item = Item.builder().name("Drill " + i).description("drill").available(true).owner(owner).build();
+            em.persist(item);
+            items.add(item);
+        }
+        for (int i = 0; i < ROWS - items.size(); i++) {
+            em.persist(Item.builder().name("Saw " + i).description("saw").available(true).owner(owner).build());
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < ROWS; i++) {
+            em.persist(Booking.builder().item(items.get(i % items.size())).booker(booker)
+                    .start(start.plusMinutes(i)).end(start.plusMinutes(i + 1)).status(BookingStatus.WAITING).build());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void streamAllByOwner_matchesPagedListAndKeepsContextSmall() {
+        List<Long> streamed = new ArrayList<>();
+        int[] maxManaged = {0};
+
+        bookingService.streamAllByOwner(owner.getId(), "waiting", dto -> {
+            streamed.add(dto.getId());
+            maxManaged[0] = Math.max(maxManaged[0], managedEntities());
+        });
+
+        List<Long> listed = bookingService.getAllByOwner(owner.getId(), "WAITING", PageParams.of(0, ROWS)).stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+        assertThat(streamed).hasSize(ROWS).containsExactlyElementsOf(listed);
+        assertThat(maxManaged[0]).isLessThanOrEqualTo(Streaming.CHUNK_SIZE + 20);
+    }
+
+    @Test
+    void streamAllByOwner_filtersByState() {
+        List<BookingResponseDto> streamed = new ArrayList<>();
+
+        bookingService.streamAllByOwner(owner.getId(), "PAST", streamed::add);
+
+        assertThat(streamed).isEmpty();
+    }
+
+    @Test
+    void streamSearch_returnsWholeResultInSearchOrder() {
+        List<Long> streamed = new ArrayList<>();
+
+        itemService.streamSearch("saw", dto -> streamed.add(dto.getId()));
+
+        assertThat(streamed).hasSize(ROWS - 10).isSorted()
+                .containsExactlyElementsOf(itemService.search("saw", PageParams.of(0, ROWS)).stream()
+                        .map(ItemDto::getId)
+                        .toList());
+    }
+
+    private int managedEntities() {
+        return em.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+}
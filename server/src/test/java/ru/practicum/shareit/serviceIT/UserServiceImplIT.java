@@ -8,6 +8,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.ShareItServer;
 import ru.practicum.shareit.exception.ExceptionSameEmail;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
@@ -47,6 +48,15 @@ class UserServiceImplIT {
                 .isInstanceOf(ExceptionSameEmail.class);
     }
 
+    @Test
+    void duplicateEmail_unknownToFilter_rejectedByConstraint() {
+        userRepo.saveAndFlush(User.builder().name("Other node").email("other@mail.com").build());
+
+        assertThatThrownBy(() ->
+                userService.create(new UserDto(null, "Bob", "other@mail.com")))
+                .isInstanceOf(ExceptionSameEmail.class);
+    }
+
     @Test
     void update_changes_only_specified_fields() {
         UserDto orig = userService.create(new UserDto(null, "Mike", "m@mail.com"));